@@ -0,0 +1,46 @@
+#!/usr/bin/env sh
+
+# Compares startup time and per-file latency of the headless launcher across
+# the given commands. Each command is invoked like a script would do it:
+# once per file. Example:
+#
+#   ./scripts/benchmark-startup.sh \
+#     "java -cp target/pdfzoomwizard-0.14.0-SNAPSHOT.jar com.github.beatngu13.pdfzoomwizard.HeadlessLauncher" \
+#     "target/pdfzoomwizard-headless"
+
+set -e
+
+runs=${RUNS:-20}
+work_dir=$(mktemp -d)
+trap 'rm -rf "$work_dir"' EXIT
+
+now_ms() {
+	echo $(($(date +%s%N) / 1000000))
+}
+
+empty_dir="$work_dir/empty"
+mkdir "$empty_dir"
+
+for cmd in "$@"; do
+	# Startup: a complete run on an empty directory, i.e. launcher and logging
+	# initialization plus an empty walk, which must exit successfully.
+	start=$(now_ms)
+	for i in $(seq 1 "$runs"); do
+		$cmd "$empty_dir" >/dev/null 2>&1
+	done
+	startup=$((($(now_ms) - start) / runs))
+
+	# Per-file latency: a fresh copy of the sample PDF per invocation.
+	for i in $(seq 1 "$runs"); do
+		cp src/test/resources/sample.pdf "$work_dir/sample-$i.pdf"
+	done
+	start=$(now_ms)
+	for i in $(seq 1 "$runs"); do
+		$cmd --zoom fit_page "$work_dir/sample-$i.pdf" >/dev/null 2>&1
+	done
+	per_file=$((($(now_ms) - start) / runs))
+
+	echo "$cmd"
+	echo "  startup:  ${startup} ms"
+	echo "  per file: ${per_file} ms"
+done
@@ -0,0 +1,18 @@
+#!/usr/bin/env sh
+
+# Builds target/pdfzoomwizard-headless with profile-guided optimization, which
+# requires Oracle GraalVM (GraalVM CE: run "./mvnw -B -Pnative-headless package").
+
+set -ex
+
+./mvnw -B -Pnative-headless -DskipTests -Dnative.pgo.arg=--pgo-instrument package
+
+training_dir=$(mktemp -d)
+for i in $(seq 1 50); do
+	cp src/test/resources/sample.pdf "$training_dir/sample-$i.pdf"
+done
+# The instrumented binary writes default.iprof to the working directory on exit.
+(cd target && ./pdfzoomwizard-headless --zoom fit_page "$training_dir")
+rm -rf "$training_dir"
+
+./mvnw -B -Pnative-headless -DskipTests -Dnative.pgo.arg=--pgo="$(pwd)/target/default.iprof" package
@@ -0,0 +1,265 @@
+package com.github.beatngu13.pdfzoomwizard;
+
+import com.github.beatngu13.pdfzoomwizard.core.Scheduling;
+import com.github.beatngu13.pdfzoomwizard.core.Shard;
+import com.github.beatngu13.pdfzoomwizard.core.Zoom;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command-line arguments of the {@link HeadlessLauncher}.
+ *
+ * @param root          Directory or file to work with, <code>null</code> if reports are merged.
+ * @param filenameInfix <i>Filename&lt;infix&gt;.pdf</i> for copies, <code>null</code> to overwrite.
+ * @param zoom          Zoom to apply to all bookmarks.
+ * @param variants      Filename infix per zoom to write several variants from a single parse, empty to only apply
+ *                      {@link #zoom}. Otherwise, {@link #zoom} and {@link #filenameInfix} are the first variant.
+ * @param shard         Shard of the files to work with, <code>null</code> for all files.
+ * @param report        File to write the report to, <code>null</code> for no report.
+ * @param mergeReports  Reports to merge into {@link #report} instead of working with {@link #root}.
+ * @param workerCount   Number of files which are modified in parallel.
+ * @param adaptive      Whether the number of parallel files is tuned at runtime, up to {@link #workerCount}.
+ * @param scheduling    Order in which files are dispatched to the workers.
+ * @param isolated      Whether files are modified in child JVMs instead of in-process.
+ * @param workerMaxHeap Maximum heap size of each child JVM, <code>null</code> for the JVM default.
+ * @param timeout       Wall-clock time budget per file, <code>null</code> for no limit.
+ * @param deduplicate   Whether PDF files with identical content are only modified once.
+ * @param modifyLinks   Whether the zoom is also applied to GoTo links on pages.
+ * @param fastOutline   Whether bookmarks are patched without PDF Clown's document model where possible.
+ * @param modifyZips    Whether the PDFs inside ZIP archives are modified as well.
+ * @param verify        Whether written files are verified and rolled back on mismatch.
+ * @param outputRoot    Directory to mirror the modified files into, <code>null</code> to write next to the originals.
+ */
+record HeadlessArguments(File root, String filenameInfix, Zoom zoom, Map<Zoom, String> variants, Shard shard,
+						 Path report, List<Path> mergeReports, int workerCount, boolean adaptive, Scheduling scheduling,
+						 boolean isolated, String workerMaxHeap,
+						 Duration timeout, boolean deduplicate, boolean modifyLinks, boolean fastOutline,
+						 boolean modifyZips, boolean verify,
+						 File outputRoot) {
+
+	static final String USAGE = """
+			Usage: pdfzoomwizard-headless [options] <file-or-directory>
+			       pdfzoomwizard-headless --report <file> --merge <report> [--merge <report>]...
+			  --zoom <zoom>     Zoom to apply, one of actual_size, fit_page, fit_visible,
+			                    fit_width, inherit_zoom (default: inherit_zoom).
+			  --links           Apply the zoom to GoTo links on pages (e.g. a table of
+			                    contents) as well, not only to bookmarks.
+			  --fast-outline    Patch the bookmarks of plain PDFs without building the
+			                    whole document model, much faster for large files.
+			                    Other PDFs fall back to the default. Ignored with --links.
+			  --zip             Modify the PDFs inside ZIP archives as well. Archives
+			                    are rewritten, archives without PDFs are skipped.
+			  --infix <infix>   Write copies named Filename<infix>.pdf instead of
+			                    overwriting the originals.
+			  --variant <zoom>=<infix>
+			                    Instead of --zoom and --infix: write a copy named
+			                    Filename<infix>.pdf with the given zoom. Repeat to write
+			                    several variants, each PDF is only parsed once.
+			  --output-root <dir>
+			                    Write the modified files into dir, mirroring the
+			                    directory structure. Files whose output is not older
+			                    than the original are skipped, unless the output has
+			                    been written with another zoom or --links setting.
+			  --shard <i>/<n>   Only work with the files of shard i out of n, e.g. 2/3.
+			                    Files are assigned by a hash of their relative path.
+			  --report <file>   Write a tab-separated report of all processed files.
+			  --merge <report>  Merge the given report into the --report file.
+			  --workers <n>     Modify n files in parallel (default: 1).
+			  --adaptive        Tune the number of files modified in parallel between 1
+			                    and --workers at runtime, based on throughput, heap
+			                    usage and I/O latency.
+			  --schedule <order>
+			                    Order in which files are modified, one of largest-first,
+			                    walk (default: largest-first).
+			  --isolate         Modify files in child JVMs, so that a crash or an
+			                    OutOfMemoryError only fails the file at hand.
+			  --worker-heap <size>
+			                    Maximum heap size of each child JVM, e.g. 512m.
+			  --timeout <seconds>
+			                    Leave files untouched which take longer. Without
+			                    --isolate, the work is only abandoned and keeps using
+			                    CPU and memory until it ends; only --isolate kills it.
+			  --dedup           Modify identical PDF files only once and link (copies)
+			                    or copy (originals) the result to the others.
+			  --verify          Re-open each written file and check that all destinations
+			                    carry the zoom, roll it back otherwise.""";
+
+	private static final Zoom ZOOM_DEFAULT = Zoom.INHERIT_ZOOM;
+	private static final Scheduling SCHEDULING_DEFAULT = Scheduling.LARGEST_FIRST;
+
+	HeadlessArguments(File root, String filenameInfix, Zoom zoom) {
+		this(root, filenameInfix, zoom, Map.of(), null, null, List.of(), 1, false, SCHEDULING_DEFAULT, false, null, null,
+				false, false, false, false, false, null);
+	}
+
+	/**
+	 * Parses the given command-line arguments.
+	 *
+	 * @param args Arguments to parse.
+	 * @return Parsed arguments.
+	 * @throws IllegalArgumentException If the arguments are invalid.
+	 */
+	static HeadlessArguments parse(String... args) {
+		File root = null;
+		String filenameInfix = null;
+		Zoom zoom = null;
+		var variants = new LinkedHashMap<Zoom, String>();
+		Shard shard = null;
+		Path report = null;
+		var mergeReports = new ArrayList<Path>();
+		var workerCount = 1;
+		var adaptive = false;
+		var scheduling = SCHEDULING_DEFAULT;
+		var isolated = false;
+		String workerMaxHeap = null;
+		Duration timeout = null;
+		var deduplicate = false;
+		var modifyLinks = false;
+		var fastOutline = false;
+		var modifyZips = false;
+		var verify = false;
+		File outputRoot = null;
+
+		for (int i = 0; i < args.length; i++) {
+			var arg = args[i];
+			switch (arg) {
+				case "--zoom" -> zoom = parseZoom(valueOf(args, ++i, arg));
+				case "--links" -> modifyLinks = true;
+				case "--fast-outline" -> fastOutline = true;
+				case "--zip" -> modifyZips = true;
+				case "--infix" -> filenameInfix = valueOf(args, ++i, arg);
+				case "--variant" -> parseVariant(valueOf(args, ++i, arg), variants);
+				case "--output-root" -> outputRoot = new File(valueOf(args, ++i, arg));
+				case "--shard" -> shard = Shard.parse(valueOf(args, ++i, arg));
+				case "--report" -> report = Path.of(valueOf(args, ++i, arg));
+				case "--merge" -> mergeReports.add(Path.of(valueOf(args, ++i, arg)));
+				case "--workers" -> workerCount = parseWorkerCount(valueOf(args, ++i, arg));
+				case "--adaptive" -> adaptive = true;
+				case "--schedule" -> scheduling = parseScheduling(valueOf(args, ++i, arg));
+				case "--isolate" -> isolated = true;
+				case "--worker-heap" -> workerMaxHeap = valueOf(args, ++i, arg);
+				case "--timeout" -> timeout = parseTimeout(valueOf(args, ++i, arg));
+				case "--dedup" -> deduplicate = true;
+				case "--verify" -> verify = true;
+				default -> {
+					if (arg.startsWith("--")) {
+						throw new IllegalArgumentException("Unknown option '%s'.".formatted(arg));
+					}
+					if (root != null) {
+						throw new IllegalArgumentException("Only one file or directory may be given.");
+					}
+					root = new File(arg);
+				}
+			}
+		}
+
+		if (!mergeReports.isEmpty()) {
+			if (root != null) {
+				throw new IllegalArgumentException("No file or directory may be given when merging reports.");
+			}
+			if (report == null) {
+				throw new IllegalArgumentException("Report must be given when merging reports.");
+			}
+		} else if (root == null) {
+			throw new IllegalArgumentException("File or directory must be given.");
+		}
+		if (filenameInfix != null && filenameInfix.isEmpty()) {
+			throw new IllegalArgumentException("Filename infix must not be empty.");
+		}
+		if (workerMaxHeap != null && !isolated) {
+			throw new IllegalArgumentException("Worker heap requires --isolate.");
+		}
+		if (!variants.isEmpty()) {
+			if (zoom != null || filenameInfix != null) {
+				throw new IllegalArgumentException("Variants cannot be combined with --zoom or --infix.");
+			}
+			if (variants.size() > 1 && (isolated || verify || deduplicate)) {
+				throw new IllegalArgumentException("Variants cannot be combined with --isolate, --verify or --dedup.");
+			}
+			var first = variants.entrySet().iterator().next();
+			zoom = first.getKey();
+			filenameInfix = first.getValue();
+		}
+		if (zoom == null) {
+			zoom = ZOOM_DEFAULT;
+		}
+		// Keeps the order of the variants, the first one is written first.
+		return new HeadlessArguments(root, filenameInfix, zoom, Collections.unmodifiableMap(variants), shard, report,
+				List.copyOf(mergeReports), workerCount, adaptive, scheduling, isolated, workerMaxHeap, timeout, deduplicate,
+				modifyLinks, fastOutline, modifyZips, verify, outputRoot);
+	}
+
+	private static String valueOf(String[] args, int index, String option) {
+		if (index >= args.length) {
+			throw new IllegalArgumentException("Option '%s' requires a value.".formatted(option));
+		}
+		return args[index];
+	}
+
+	private static int parseWorkerCount(String value) {
+		int workerCount;
+		try {
+			workerCount = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid worker count '%s'.".formatted(value), e);
+		}
+		if (workerCount < 1) {
+			throw new IllegalArgumentException("Worker count must be positive.");
+		}
+		return workerCount;
+	}
+
+	private static Duration parseTimeout(String value) {
+		long seconds;
+		try {
+			seconds = Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid timeout '%s'.".formatted(value), e);
+		}
+		if (seconds < 1) {
+			throw new IllegalArgumentException("Timeout must be positive.");
+		}
+		return Duration.ofSeconds(seconds);
+	}
+
+	private static Scheduling parseScheduling(String value) {
+		return switch (value) {
+			case "largest-first" -> Scheduling.LARGEST_FIRST;
+			case "walk" -> Scheduling.WALK_ORDER;
+			default -> throw new IllegalArgumentException("Unknown schedule '%s'.".formatted(value));
+		};
+	}
+
+	private static void parseVariant(String value, Map<Zoom, String> variants) {
+		var separator = value.indexOf('=');
+		if (separator < 0) {
+			throw new IllegalArgumentException("Invalid variant '%s', expected <zoom>=<infix>.".formatted(value));
+		}
+		var zoom = parseZoom(value.substring(0, separator));
+		var infix = value.substring(separator + 1);
+		if (infix.isEmpty()) {
+			throw new IllegalArgumentException("Filename infix of variant '%s' must not be empty.".formatted(value));
+		}
+		if (variants.containsKey(zoom) || variants.containsValue(infix)) {
+			throw new IllegalArgumentException("Duplicate zoom or filename infix in variant '%s'.".formatted(value));
+		}
+		variants.put(zoom, infix);
+	}
+
+	private static Zoom parseZoom(String value) {
+		try {
+			return Zoom.valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unknown zoom '%s'.".formatted(value), e);
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.github.beatngu13.pdfzoomwizard;
+
+import com.github.beatngu13.pdfzoomwizard.core.Report;
+import com.github.beatngu13.pdfzoomwizard.core.Wizard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Launches the Wizard without UI, e.g. for scripts. Unlike {@link Launcher}, this doesn't touch JavaFX and can
+ * therefore be compiled into a small native image.
+ * <p>
+ * Exit codes: <code>0</code> if all PDF files have been modified, <code>1</code> if at least one failed or timed out and
+ * <code>2</code> for invalid arguments.
+ *
+ * @author Daniel Kraus
+ */
+public class HeadlessLauncher {
+
+	private static final String LOGBACK_CONFIGURATION_FILE_PROPERTY = "logback.configurationFile";
+
+	static {
+		// Must happen before the first logger is created.
+		if (System.getProperty(LOGBACK_CONFIGURATION_FILE_PROPERTY) == null) {
+			System.setProperty(LOGBACK_CONFIGURATION_FILE_PROPERTY, "logback-batch.xml");
+		}
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(HeadlessLauncher.class);
+
+	static final int EXIT_SUCCESS = 0;
+	static final int EXIT_FAILURE = 1;
+	static final int EXIT_USAGE = 2;
+
+	public static void main(String[] args) {
+		System.exit(run(args));
+	}
+
+	/**
+	 * Visible for testing.
+	 */
+	static int run(String... args) {
+		HeadlessArguments arguments;
+		try {
+			arguments = HeadlessArguments.parse(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(HeadlessArguments.USAGE);
+			return EXIT_USAGE;
+		}
+
+		logger.info("Launching PDF Zoom Wizard headless (version {}).", VersionUtil.getVersion());
+		try {
+			if (!arguments.mergeReports().isEmpty()) {
+				return mergeReports(arguments);
+			}
+			var wizard = arguments.variants().isEmpty()
+					? new Wizard(arguments.root(), arguments.filenameInfix(), arguments.zoom())
+					: new Wizard(arguments.root(), arguments.variants());
+			wizard.setModifyLinks(arguments.modifyLinks());
+			wizard.setFastOutline(arguments.fastOutline());
+			wizard.setModifyZips(arguments.modifyZips());
+			wizard.setOutputRoot(arguments.outputRoot());
+			wizard.setShard(arguments.shard());
+			wizard.setWorkerCount(arguments.workerCount());
+			wizard.setAdaptiveConcurrency(arguments.adaptive());
+			wizard.setScheduling(arguments.scheduling());
+			wizard.setIsolated(arguments.isolated());
+			wizard.setWorkerMaxHeap(arguments.workerMaxHeap());
+			wizard.setTimeout(arguments.timeout());
+			wizard.setDeduplicate(arguments.deduplicate());
+			wizard.setVerify(arguments.verify());
+			wizard.call();
+			var report = wizard.getReport();
+			if (arguments.report() != null) {
+				report.write(arguments.report());
+			}
+			var unmodifiedCount = report.getFileCount(Report.Status.FAILED)
+					+ report.getFileCount(Report.Status.TIMED_OUT)
+					+ report.getFileCount(Report.Status.VERIFICATION_FAILED);
+			return unmodifiedCount == 0 ? EXIT_SUCCESS : EXIT_FAILURE;
+		} catch (Exception e) {
+			logger.error("Exception while running Wizard.", e);
+			return EXIT_FAILURE;
+		}
+	}
+
+	private static int mergeReports(HeadlessArguments arguments) throws IOException {
+		var reports = new ArrayList<Report>();
+		for (var file : arguments.mergeReports()) {
+			reports.add(Report.read(file));
+		}
+		var merged = Report.merge(reports);
+		merged.write(arguments.report());
+		logger.info("Merged {} report(s): modified {} bookmark(s) in {} file(s), {} file(s) failed, {} file(s) timed out.",
+				reports.size(), merged.getBookmarkCount(), merged.getFileCount(Report.Status.MODIFIED),
+				merged.getFileCount(Report.Status.FAILED), merged.getFileCount(Report.Status.TIMED_OUT));
+		return EXIT_SUCCESS;
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.pdfclown.documents.interaction.navigation.document.Bookmark;
+import org.pdfclown.documents.interaction.navigation.document.Bookmarks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies a zoom to the bookmarks of a single document using {@link DestinationModifier}. Holds no state besides
+ * the zoom, hence an instance can be shared between threads as long as each document is only modified by one thread
+ * at a time.
+ *
+ * @author Daniel Kraus
+ */
+final class BookmarkModifier {
+
+	private static final Logger logger = LoggerFactory.getLogger(BookmarkModifier.class);
+
+	/**
+	 * Applies the zoom to the destination of each bookmark.
+	 */
+	private final DestinationModifier destinationModifier;
+
+	/**
+	 * Creates a new <code>BookmarkModifier</code> instance.
+	 *
+	 * @param zoom Zoom to apply to all bookmarks.
+	 */
+	BookmarkModifier(Zoom zoom) {
+		this(new DestinationModifier(zoom));
+	}
+
+	/**
+	 * Creates a new <code>BookmarkModifier</code> instance.
+	 *
+	 * @param destinationModifier Sets {@link #destinationModifier}.
+	 */
+	BookmarkModifier(DestinationModifier destinationModifier) {
+		this.destinationModifier = destinationModifier;
+	}
+
+	/**
+	 * Modifies each bookmark which is found by depth-first search using {@link #modifyBookmark(Bookmark)}.
+	 *
+	 * @param bookmarks Bookmarks to be modified.
+	 * @return Number of modified bookmarks.
+	 */
+	int modifyBookmarks(Bookmarks bookmarks) {
+		var count = 0;
+		Bookmark previous = null;
+		for (Bookmark bookmark : bookmarks) {
+			// Bookmarks#iterator() might be endless.
+			if (bookmark.equals(previous)) {
+				break;
+			}
+			Bookmarks children = bookmark.getBookmarks();
+			// Size might be positive (bookmark open) or negative (bookmark closed).
+			if (children.size() != 0) {
+				count += modifyBookmarks(children);
+			}
+			if (modifyBookmark(bookmark)) {
+				count++;
+			}
+			previous = bookmark;
+		}
+		return count;
+	}
+
+	/**
+	 * Modifies the given bookmark using {@link DestinationModifier}.
+	 *
+	 * @param bookmark Bookmark to be modified.
+	 * @return <code>true</code> if the bookmark has been modified, else <code>false</code>.
+	 */
+	private boolean modifyBookmark(Bookmark bookmark) {
+		// Bookmark#getTarget() might throw an exception. Title is only decoded if actually logged.
+		var title = BookmarkUtil.getLazyTitle(bookmark);
+		try {
+			var target = bookmark.getTarget();
+			if (target == null) {
+				logger.warn("Bookmark '{}' has no target.", title);
+				return false;
+			}
+
+			var destination = destinationModifier.getDestination(target);
+			if (destination == null) {
+				logger.warn("Bookmark '{}' has no destination.", title);
+				return false;
+			}
+
+			destinationModifier.modifyDestination(destination);
+			logger.debug("Modified bookmark '{}'.", title);
+			return true;
+		} catch (Exception e) {
+			logger.error("Exception while processing bookmark '{}'.", title, e);
+			return false;
+		}
+	}
+
+}
@@ -22,4 +22,27 @@ final class BookmarkUtil {
 		}
 	}
 
+	/**
+	 * Creates a log argument for the given bookmark's title. The title is only decoded (using
+	 * {@link #getTitle(Bookmark)}) once a log statement is actually formatted, and at most once.
+	 *
+	 * @param bm Bookmark to get the title from.
+	 * @return Log argument whose {@link Object#toString()} yields the bookmark's title.
+	 */
+	public static Object getLazyTitle(Bookmark bm) {
+		return new Object() {
+
+			private String title;
+
+			@Override
+			public String toString() {
+				if (title == null) {
+					title = getTitle(bm);
+				}
+				return title;
+			}
+
+		};
+	}
+
 }
@@ -0,0 +1,35 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Decides once whether the modification of a file is committed or abandoned, whichever is requested first. This
+ * makes sure that a file whose time budget has been exceeded is left untouched, even if the abandoned modification
+ * carries on in the background.
+ *
+ * @author Daniel Kraus
+ */
+final class CommitGuard {
+
+	private enum State {
+		PENDING, COMMITTED, ABANDONED
+	}
+
+	private final AtomicReference<State> state = new AtomicReference<>(State.PENDING);
+
+	/**
+	 * @return <code>true</code> if the modification may be committed, <code>false</code> if it has been abandoned.
+	 */
+	boolean commit() {
+		return state.compareAndSet(State.PENDING, State.COMMITTED);
+	}
+
+	/**
+	 * @return <code>true</code> if the modification has been abandoned, <code>false</code> if it is already being
+	 * committed.
+	 */
+	boolean abandon() {
+		return state.compareAndSet(State.PENDING, State.ABANDONED);
+	}
+
+}
@@ -0,0 +1,268 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Tunes the number of files which are modified in parallel at runtime, between 1 and the number of workers. Workers
+ * {@link #acquire()} a slot before and {@link #release(long, long)} it after each file. Once per {@link #window}, the
+ * read throughput (bytes/s) of the window is compared with the previous one by hill climbing: the limit keeps
+ * moving in its direction while throughput improves, reverses when it drops and holds on a plateau. On heap pressure
+ * (live heap after the last GC above {@link #MAX_HEAP_USAGE}) or an I/O latency spike (time per byte above
+ * {@link #LATENCY_SPIKE_FACTOR} times the best window so far), the limit is halved instead.
+ * <p>
+ * Each change is logged and kept as a {@link Decision}. With isolated workers, only the heap of this JVM is observed.
+ * Thread-safe.
+ *
+ * @author Daniel Kraus
+ */
+public final class ConcurrencyController {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConcurrencyController.class);
+
+	/**
+	 * Default of {@link #window}.
+	 */
+	static final Duration WINDOW = Duration.ofSeconds(2);
+	/**
+	 * Relative throughput change below which two windows count as equal.
+	 */
+	static final double THROUGHPUT_TOLERANCE = 0.05;
+	/**
+	 * Fraction of the maximum heap above which the limit is halved.
+	 */
+	static final double MAX_HEAP_USAGE = 0.85;
+	/**
+	 * Factor of the best time per byte above which the limit is halved.
+	 */
+	static final double LATENCY_SPIKE_FACTOR = 3;
+
+	/**
+	 * Change of the limit.
+	 *
+	 * @param elapsedMillis  Time since the controller has been created.
+	 * @param from           Previous limit.
+	 * @param to             New limit.
+	 * @param reason         Why the limit has been changed.
+	 * @param filesPerSecond Completed files per second in the last window.
+	 * @param bytesPerSecond Read bytes per second in the last window.
+	 */
+	public record Decision(long elapsedMillis, int from, int to, String reason, double filesPerSecond,
+						   double bytesPerSecond) {
+	}
+
+	private final int minLimit;
+	private final int maxLimit;
+	/**
+	 * Time over which throughput is measured before the limit is adjusted.
+	 */
+	private final long window;
+	/**
+	 * Current time in nanoseconds.
+	 */
+	private final LongSupplier clock;
+	/**
+	 * Fraction of the maximum heap which was live after the last GC.
+	 */
+	private final DoubleSupplier heapUsage;
+	private final long startNanos;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
+	private final List<Decision> decisions = new ArrayList<>();
+
+	private int limit;
+	private int active;
+	/**
+	 * <code>1</code> while increasing the limit, <code>-1</code> while decreasing it.
+	 */
+	private int direction = 1;
+	private long windowStartNanos;
+	private int windowFiles;
+	private long windowBytes;
+	private long windowLatencyNanos;
+	/**
+	 * Throughput of the previous window, <code>-1</code> if there is none.
+	 */
+	private double previousBytesPerSecond = -1;
+	/**
+	 * Lowest time per byte of all windows so far, <code>-1</code> if there is none.
+	 */
+	private double bestNanosPerByte = -1;
+
+	/**
+	 * Creates a new <code>ConcurrencyController</code> instance, which starts with a single slot.
+	 *
+	 * @param maxLimit Maximum number of files which are modified in parallel.
+	 */
+	ConcurrencyController(int maxLimit) {
+		this(1, maxLimit, WINDOW, System::nanoTime, ConcurrencyController::getHeapUsage);
+	}
+
+	/**
+	 * Visible for testing.
+	 */
+	ConcurrencyController(int minLimit, int maxLimit, Duration window, LongSupplier clock, DoubleSupplier heapUsage) {
+		if (minLimit < 1 || maxLimit < minLimit) {
+			throw new IllegalArgumentException("Invalid limits %d..%d.".formatted(minLimit, maxLimit));
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.window = window.toNanos();
+		this.clock = clock;
+		this.heapUsage = heapUsage;
+		this.startNanos = clock.getAsLong();
+		this.limit = minLimit;
+		this.windowStartNanos = startNanos;
+	}
+
+	/**
+	 * Waits until a slot is free and takes it.
+	 *
+	 * @throws InterruptedException If interrupted while waiting.
+	 */
+	void acquire() throws InterruptedException {
+		lock.lock();
+		try {
+			while (active >= limit) {
+				released.await();
+			}
+			active++;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Frees a slot and records the completed file, which may adjust the limit.
+	 *
+	 * @param bytes        Size of the completed file.
+	 * @param latencyNanos Time it took to modify the file.
+	 */
+	void release(long bytes, long latencyNanos) {
+		lock.lock();
+		try {
+			active--;
+			windowFiles++;
+			windowBytes += bytes;
+			windowLatencyNanos += latencyNanos;
+			var now = clock.getAsLong();
+			if (now - windowStartNanos >= window) {
+				adjust(now);
+			}
+			released.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return Current maximum number of files which are modified in parallel.
+	 */
+	int getLimit() {
+		lock.lock();
+		try {
+			return limit;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return Copy of all changes of the limit in the order they have been made.
+	 */
+	public List<Decision> getDecisions() {
+		lock.lock();
+		try {
+			return List.copyOf(decisions);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void adjust(long now) {
+		var seconds = (now - windowStartNanos) / 1e9;
+		var filesPerSecond = windowFiles / seconds;
+		var bytesPerSecond = windowBytes / seconds;
+		// Empty files carry no latency information.
+		var nanosPerByte = windowBytes > 0 ? windowLatencyNanos / (double) windowBytes : -1;
+
+		int newLimit;
+		String reason;
+		var usage = heapUsage.getAsDouble();
+		if (usage > MAX_HEAP_USAGE) {
+			newLimit = limit / 2;
+			reason = "heap pressure (%.0f%% used)".formatted(usage * 100);
+			direction = 1;
+		} else if (nanosPerByte > 0 && bestNanosPerByte > 0
+				&& nanosPerByte > bestNanosPerByte * LATENCY_SPIKE_FACTOR) {
+			newLimit = limit / 2;
+			reason = "latency spike (%.1fx best)".formatted(nanosPerByte / bestNanosPerByte);
+			direction = 1;
+		} else if (previousBytesPerSecond < 0 || bytesPerSecond > previousBytesPerSecond * (1 + THROUGHPUT_TOLERANCE)) {
+			newLimit = limit + direction;
+			reason = "throughput improved";
+		} else if (bytesPerSecond < previousBytesPerSecond * (1 - THROUGHPUT_TOLERANCE)) {
+			direction = -direction;
+			newLimit = limit + direction;
+			reason = "throughput dropped";
+		} else {
+			newLimit = limit;
+			reason = "throughput unchanged";
+		}
+		if (newLimit < minLimit) {
+			// Otherwise, each improvement would push against the lower bound again. At the upper bound, the limit is
+			// held until throughput actually drops.
+			direction = 1;
+		}
+		newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+
+		if (nanosPerByte > 0 && (bestNanosPerByte < 0 || nanosPerByte < bestNanosPerByte)) {
+			bestNanosPerByte = nanosPerByte;
+		}
+		previousBytesPerSecond = bytesPerSecond;
+		windowStartNanos = now;
+		windowFiles = 0;
+		windowBytes = 0;
+		windowLatencyNanos = 0;
+
+		if (newLimit == limit) {
+			logger.debug("Keeping {} worker(s): {} at {} file(s)/s, {} byte(s)/s.", limit, reason,
+					"%.2f".formatted(filesPerSecond), "%.0f".formatted(bytesPerSecond));
+			return;
+		}
+		logger.info("Adjusting workers from {} to {}: {} at {} file(s)/s, {} byte(s)/s.", limit, newLimit, reason,
+				"%.2f".formatted(filesPerSecond), "%.0f".formatted(bytesPerSecond));
+		decisions.add(new Decision((now - startNanos) / 1_000_000, limit, newLimit, reason, filesPerSecond,
+				bytesPerSecond));
+		limit = newLimit;
+	}
+
+	/**
+	 * @return Fraction of the maximum heap which was live after the last GC, <code>0</code> if unknown.
+	 */
+	private static double getHeapUsage() {
+		var max = Runtime.getRuntime().maxMemory();
+		if (max == Long.MAX_VALUE) {
+			return 0;
+		}
+		var used = ManagementFactory.getMemoryPoolMXBeans().stream()
+				.filter(pool -> pool.getType() == MemoryType.HEAP)
+				.map(MemoryPoolMXBean::getCollectionUsage)
+				.mapToLong(usage -> usage == null ? 0 : usage.getUsed())
+				.sum();
+		return used / (double) max;
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.pdfclown.documents.interaction.actions.GoToDestination;
+import org.pdfclown.documents.interaction.navigation.document.Destination;
+import org.pdfclown.documents.interaction.navigation.document.LocalDestination;
+import org.pdfclown.objects.PdfObjectWrapper;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Applies {@link #zoom} to the destinations of bookmarks and links, see {@link BookmarkModifier} and
+ * {@link LinkModifier}. Holds no state besides {@link #zoom} and {@link #listener}, hence an instance can be shared
+ * between threads if the listener is thread-safe.
+ *
+ * @author Daniel Kraus
+ */
+final class DestinationModifier {
+
+	/**
+	 * Zoom to apply to all destinations.
+	 */
+	private final Zoom zoom;
+	/**
+	 * Notified of each destination right before it is modified.
+	 */
+	private final Consumer<Destination> listener;
+
+	/**
+	 * Creates a new <code>DestinationModifier</code> instance.
+	 *
+	 * @param zoom Sets {@link #zoom}.
+	 */
+	DestinationModifier(Zoom zoom) {
+		this(zoom, destination -> {
+		});
+	}
+
+	/**
+	 * Creates a new <code>DestinationModifier</code> instance.
+	 *
+	 * @param zoom     Sets {@link #zoom}.
+	 * @param listener Sets {@link #listener}.
+	 */
+	DestinationModifier(Zoom zoom, Consumer<Destination> listener) {
+		this.zoom = zoom;
+		this.listener = listener;
+	}
+
+	/**
+	 * Gets a bookmark's or link's target destination.
+	 *
+	 * @param target Target to get the destination from.
+	 * @return Target destination if applicable, else <code>null</code>.
+	 */
+	Destination getDestination(PdfObjectWrapper<?> target) {
+		if (target instanceof GoToDestination<?> goToDestination) {
+			return goToDestination.getDestination();
+		}
+		if (target instanceof LocalDestination localDestination) {
+			return localDestination;
+		}
+		return null;
+	}
+
+	/**
+	 * Modifies the given destination by applying {@link #zoom}.
+	 *
+	 * @param destination Destination to modify.
+	 */
+	void modifyDestination(Destination destination) {
+		listener.accept(destination);
+		destination.setMode(zoom.getMode());
+		destination.setZoom(zoom.getZoom());
+	}
+
+	/**
+	 * @param destination Destination to check.
+	 * @return <code>true</code> if {@link #zoom} has been applied to the given destination, else <code>false</code>.
+	 */
+	boolean isModified(Destination destination) {
+		if (destination.getMode() != zoom.getMode()) {
+			return false;
+		}
+		// Only XYZ destinations carry a zoom.
+		return zoom.getMode() != Destination.ModeEnum.XYZ || Objects.equals(destination.getZoom(), zoom.getZoom());
+	}
+
+}
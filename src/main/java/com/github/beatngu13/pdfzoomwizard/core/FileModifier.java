@@ -0,0 +1,22 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import java.nio.file.Path;
+
+/**
+ * Modifies a single PDF file, see {@link PdfFileModifier} and {@link WorkerPool}. Implementations must be
+ * thread-safe, {@link Wizard} may call them from several workers at once.
+ *
+ * @author Daniel Kraus
+ */
+interface FileModifier {
+
+	/**
+	 * @param pdf PDF file to modify.
+	 * @return Number of modified bookmarks (and links, if enabled).
+	 * @throws java.util.concurrent.TimeoutException If the time budget of the file has been exceeded, the file is
+	 *                                                left untouched then.
+	 * @throws Exception If the file could not be modified.
+	 */
+	int modify(Path pdf) throws Exception;
+
+}
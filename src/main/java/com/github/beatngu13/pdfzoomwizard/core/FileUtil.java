@@ -0,0 +1,129 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Helpers for the files written by the Wizard.
+ *
+ * @author Daniel Kraus
+ */
+final class FileUtil {
+
+	/**
+	 * Extension of partially written files, which replace their target once complete. Must not be <i>.tmp</i>, PDF
+	 * Clown renames such files on close.
+	 */
+	private static final String PART_FILE_EXTENSION = ".part";
+	private static final String HASH_ALGORITHM = "SHA-256";
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private FileUtil() {
+	}
+
+	/**
+	 * @param pdf           PDF (or ZIP archive) to be modified.
+	 * @param filenameInfix <i>Filename&lt;infix&gt;.pdf</i> for copies, <code>null</code> to overwrite.
+	 * @return File to which the modified PDF is written.
+	 */
+	static Path getTarget(Path pdf, String filenameInfix) {
+		var target = pdf.toAbsolutePath();
+		if (filenameInfix == null) {
+			return target;
+		}
+		var filename = target.getFileName().toString();
+		var extensionIndex = filename.lastIndexOf('.');
+		if (extensionIndex < 0) {
+			return target.resolveSibling(filename + filenameInfix);
+		}
+		return target.resolveSibling(filename.substring(0, extensionIndex) + filenameInfix
+				+ filename.substring(extensionIndex));
+	}
+
+	/**
+	 * @param target File to be written.
+	 * @return File to write first, which is then moved to the target using {@link #replace(Path, Path)}.
+	 */
+	static Path getPartFile(Path target) {
+		return target.resolveSibling(target.getFileName() + PART_FILE_EXTENSION);
+	}
+
+	/**
+	 * Replaces the target with the source, atomically if supported.
+	 *
+	 * @param source File to move.
+	 * @param target File to replace.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	static void replace(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Replaces the target with a hard link to the source, or with a copy of it if linking is not possible (e.g.
+	 * across file stores).
+	 *
+	 * @param source File to link or copy.
+	 * @param target File to replace.
+	 * @param link   Whether to try linking at all.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	static void replaceWithLinkOrCopy(Path source, Path target, boolean link) throws IOException {
+		var part = getPartFile(target);
+		try {
+			Files.deleteIfExists(part);
+			if (!link || !tryLink(part, source)) {
+				Files.copy(source, part);
+			}
+			replace(part, target);
+		} finally {
+			Files.deleteIfExists(part);
+		}
+	}
+
+	private static boolean tryLink(Path link, Path existing) throws IOException {
+		try {
+			Files.createLink(link, existing);
+			return true;
+		} catch (UnsupportedOperationException | FileSystemException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Streams the given file through SHA-256.
+	 *
+	 * @param file File to hash.
+	 * @return Hex-encoded hash of the file's content.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	static String hash(Path file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Every JVM must support " + HASH_ALGORITHM + ".", e);
+		}
+		var buffer = new byte[BUFFER_SIZE];
+		try (InputStream in = Files.newInputStream(file)) {
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.pdfclown.documents.Page;
+import org.pdfclown.documents.Pages;
+import org.pdfclown.documents.interaction.annotations.Annotation;
+import org.pdfclown.documents.interaction.annotations.Link;
+import org.pdfclown.objects.PdfName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies a zoom to the GoTo link annotations on the pages of a single document (e.g. a table of contents) using
+ * {@link DestinationModifier}. Holds no state besides the zoom, hence an instance can be shared between threads as
+ * long as each document is only modified by one thread at a time.
+ * <p>
+ * Pages are scanned serially: PDF Clown resolves objects lazily through a single, unsynchronized parser per
+ * document, so pages of the same document cannot be scanned in parallel. Parallelism is achieved across files
+ * instead, see {@link Wizard}.
+ *
+ * @author Daniel Kraus
+ */
+final class LinkModifier {
+
+	private static final Logger logger = LoggerFactory.getLogger(LinkModifier.class);
+
+	/**
+	 * Applies the zoom to the destination of each link.
+	 */
+	private final DestinationModifier destinationModifier;
+
+	/**
+	 * Creates a new <code>LinkModifier</code> instance.
+	 *
+	 * @param zoom Zoom to apply to all links.
+	 */
+	LinkModifier(Zoom zoom) {
+		this(new DestinationModifier(zoom));
+	}
+
+	/**
+	 * Creates a new <code>LinkModifier</code> instance.
+	 *
+	 * @param destinationModifier Sets {@link #destinationModifier}.
+	 */
+	LinkModifier(DestinationModifier destinationModifier) {
+		this.destinationModifier = destinationModifier;
+	}
+
+	/**
+	 * Modifies each link on the given pages using {@link #modifyLink(Link, int)}.
+	 *
+	 * @param pages Pages whose links are to be modified.
+	 * @return Number of modified links.
+	 */
+	int modifyLinks(Pages pages) {
+		var count = 0;
+		var pageNumber = 0;
+		for (Page page : pages) {
+			pageNumber++;
+			// Avoids instantiating (virtual) annotation arrays for pages without annotations.
+			if (!page.getBaseDataObject().containsKey(PdfName.Annots)) {
+				continue;
+			}
+			try {
+				for (Annotation annotation : page.getAnnotations()) {
+					if (annotation instanceof Link link && modifyLink(link, pageNumber)) {
+						count++;
+					}
+				}
+			} catch (Exception e) {
+				logger.error("Exception while processing annotations on page {}.", pageNumber, e);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Modifies the given link using {@link DestinationModifier}.
+	 *
+	 * @param link       Link to be modified.
+	 * @param pageNumber Number of the link's page for logging.
+	 * @return <code>true</code> if the link has been modified, else <code>false</code>.
+	 */
+	private boolean modifyLink(Link link, int pageNumber) {
+		try {
+			var target = link.getTarget();
+			if (target == null) {
+				return false;
+			}
+
+			var destination = destinationModifier.getDestination(target);
+			if (destination == null) {
+				// E.g. URI actions.
+				return false;
+			}
+
+			destinationModifier.modifyDestination(destination);
+			logger.debug("Modified link on page {}.", pageNumber);
+			return true;
+		} catch (Exception e) {
+			logger.error("Exception while processing link on page {}.", pageNumber, e);
+			return false;
+		}
+	}
+
+}
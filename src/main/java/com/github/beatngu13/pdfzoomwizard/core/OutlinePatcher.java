@@ -0,0 +1,232 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import com.github.beatngu13.pdfzoomwizard.core.RawPdfReader.Name;
+import com.github.beatngu13.pdfzoomwizard.core.RawPdfReader.Ref;
+import com.github.beatngu13.pdfzoomwizard.core.RawPdfReader.Token;
+import org.pdfclown.documents.interaction.navigation.document.Destination.ModeEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fast path of {@link BookmarkModifier}: applies a zoom to the bookmarks of a PDF without building PDF Clown's
+ * document model. Only the outline chain (<i>/Outlines</i>, <i>/First</i>, <i>/Next</i>) and the destinations of
+ * its items (<i>/Dest</i>, <i>/A</i>) are read using {@link RawPdfReader}, and only the objects which hold the
+ * rewritten destinations are appended as an incremental update using {@link RawPdfWriter}.
+ * <p>
+ * Destinations are rewritten exactly like PDF Clown does, see {@link DestinationModifier}. PDFs which the fast path
+ * cannot handle (see {@link RawPdfReader}, as well as named destinations and malformed outlines) are rejected with an
+ * {@link IOException} before anything is written, so that callers can fall back to PDF Clown. Several zooms can be
+ * written from a single read, see {@link #patch(Path, Map)}. Holds no state besides the zoom, hence an instance can be
+ * shared between threads.
+ *
+ * @author Daniel Kraus
+ */
+final class OutlinePatcher {
+
+	private static final Logger logger = LoggerFactory.getLogger(OutlinePatcher.class);
+
+	/**
+	 * Zoom to apply to all bookmarks.
+	 */
+	private final Zoom zoom;
+
+	/**
+	 * Creates a new <code>OutlinePatcher</code> instance.
+	 *
+	 * @param zoom Sets {@link #zoom}.
+	 */
+	OutlinePatcher(Zoom zoom) {
+		this.zoom = zoom;
+	}
+
+	/**
+	 * Writes a copy of the given PDF with the zoom applied to all bookmarks.
+	 *
+	 * @param pdf    PDF to read.
+	 * @param output File to write, which is replaced if it exists.
+	 * @return Number of modified bookmarks.
+	 * @throws IOException If an I/O error occurs or the PDF is not supported.
+	 */
+	int patch(Path pdf, Path output) throws IOException {
+		return patch(pdf, Map.of(zoom, output));
+	}
+
+	/**
+	 * Writes a copy of the given PDF for each given zoom, with that zoom applied to all bookmarks. The outline is
+	 * only read once: before each zoom is applied, the destinations are restored to their original parameters, so
+	 * that each copy equals the result of {@link #patch(Path, Path)} with that zoom.
+	 *
+	 * @param pdf     PDF to read.
+	 * @param outputs File to write per zoom, which is replaced if it exists.
+	 * @return Number of modified bookmarks per copy.
+	 * @throws IOException If an I/O error occurs or the PDF is not supported.
+	 */
+	static int patch(Path pdf, Map<Zoom, Path> outputs) throws IOException {
+		try (var reader = new RawPdfReader(pdf)) {
+			var targets = new ArrayList<Target>();
+			var catalog = reader.resolve(reader.getTrailer().get("Root"));
+			if (catalog instanceof Map<?, ?> catalogDictionary
+					&& reader.resolve(catalogDictionary.get("Outlines")) instanceof Map<?, ?> outlines) {
+				collectItems(reader, outlines.get("First"), new HashSet<>(), targets);
+			}
+
+			for (var output : outputs.entrySet()) {
+				var changes = new LinkedHashMap<Ref, Object>();
+				for (var target : targets) {
+					target.restore();
+					modifyDestination(target.destination(), output.getKey());
+					changes.put(target.owner(), reader.getObject(target.owner()));
+				}
+				Files.copy(pdf, output.getValue(), StandardCopyOption.REPLACE_EXISTING);
+				if (!changes.isEmpty()) {
+					RawPdfWriter.appendUpdate(output.getValue(), reader, changes);
+				}
+			}
+			return targets.size();
+		}
+	}
+
+	/**
+	 * Destination array of an outline item.
+	 *
+	 * @param owner       Indirect object which holds the destination.
+	 * @param destination Destination array, modified in place.
+	 * @param original    Original parameters of the destination.
+	 */
+	private record Target(Ref owner, List<Object> destination, List<Object> original) {
+
+		void restore() {
+			destination.clear();
+			destination.addAll(original);
+		}
+
+	}
+
+	/**
+	 * Collects the destinations of the given outline items and their descendants by depth-first search, like
+	 * {@link BookmarkModifier#modifyBookmarks(org.pdfclown.documents.interaction.navigation.document.Bookmarks)}.
+	 *
+	 * @param reader  Reader of the PDF.
+	 * @param first   Reference to the first item, may be <code>null</code>.
+	 * @param visited Items which have been visited already.
+	 * @param targets Destinations which have been found.
+	 */
+	private static void collectItems(RawPdfReader reader, Object first, Set<Ref> visited, List<Target> targets)
+			throws IOException {
+		var next = first;
+		while (next != null) {
+			if (!(next instanceof Ref ref)) {
+				throw new IOException("Outline items must be indirect.");
+			}
+			// Cycles would make PDF Clown iterate endlessly.
+			if (!visited.add(ref)) {
+				break;
+			}
+			if (!(reader.getObject(ref) instanceof Map<?, ?> item)) {
+				throw new IOException("Outline item %d is not a dictionary.".formatted(ref.number()));
+			}
+			// Like PDF Clown, children are only visited if counted (open or closed).
+			var childCount = item.get("Count");
+			if (childCount != null && !(childCount instanceof Token token && Long.parseLong(token.raw()) == 0)) {
+				collectItems(reader, item.get("First"), visited, targets);
+			}
+			collectItem(reader, ref, item, targets);
+			next = item.get("Next");
+		}
+	}
+
+	/**
+	 * Adds the item's destination unless the item has no destination (e.g. a URI action).
+	 */
+	private static void collectItem(RawPdfReader reader, Ref itemRef, Map<?, ?> item, List<Target> targets)
+			throws IOException {
+		if (item.containsKey("Dest")) {
+			collectDestination(reader, item.get("Dest"), itemRef, targets);
+			return;
+		}
+		if (!item.containsKey("A")) {
+			logger.debug("Outline item {} has no target.", itemRef.number());
+			return;
+		}
+		var action = item.get("A");
+		var actionOwner = action instanceof Ref actionRef ? actionRef : itemRef;
+		if (!(reader.resolve(action) instanceof Map<?, ?> actionDictionary)) {
+			throw new IOException("Action of outline item %d is not a dictionary.".formatted(itemRef.number()));
+		}
+		if (!(actionDictionary.get("S") instanceof Name type)) {
+			throw new IOException("Action of outline item %d has no type.".formatted(itemRef.number()));
+		}
+		if (!List.of("GoTo", "GoToR", "GoToE").contains(type.raw())) {
+			logger.debug("Outline item {} has no destination.", itemRef.number());
+			return;
+		}
+		collectDestination(reader, actionDictionary.get("D"), actionOwner, targets);
+	}
+
+	/**
+	 * @param destination Destination to collect.
+	 * @param owner       Indirect object which holds the destination if it is direct.
+	 */
+	private static void collectDestination(RawPdfReader reader, Object destination, Ref owner, List<Target> targets)
+			throws IOException {
+		if (destination instanceof Ref ref) {
+			owner = ref;
+			destination = reader.getObject(ref);
+		}
+		if (!(destination instanceof List<?> array) || array.size() < 2 || !(array.get(1) instanceof Name)) {
+			// Named destinations require the name tree, which is left to PDF Clown.
+			throw new IOException("Unsupported destination in object %d.".formatted(owner.number()));
+		}
+		@SuppressWarnings("unchecked")
+		var parameters = (List<Object>) array;
+		targets.add(new Target(owner, parameters, List.copyOf(parameters)));
+	}
+
+	/**
+	 * Applies the given zoom to the given destination array like {@link DestinationModifier#modifyDestination}, i.e.
+	 * like PDF Clown's <code>Destination#setMode(ModeEnum)</code> and <code>Destination#setZoom(Double)</code>.
+	 *
+	 * @param destination Destination array to modify.
+	 * @param zoom        Zoom to apply.
+	 */
+	static void modifyDestination(List<Object> destination, Zoom zoom) {
+		var mode = zoom.getMode();
+		destination.set(1, new Name(mode.getName().getValue()));
+		var size = getSize(mode);
+		while (destination.size() < size) {
+			destination.add(Token.NULL);
+		}
+		while (destination.size() > size) {
+			destination.remove(destination.size() - 1);
+		}
+		if (mode == ModeEnum.XYZ) {
+			destination.set(4, zoom.getZoom() == null ? Token.NULL : new Token(format(zoom.getZoom())));
+		}
+	}
+
+	private static int getSize(ModeEnum mode) {
+		return switch (mode) {
+			case Fit, FitBoundingBox -> 2;
+			case FitBoundingBoxHorizontal, FitBoundingBoxVertical, FitHorizontal, FitVertical -> 3;
+			case XYZ -> 5;
+			case FitRectangle -> 6;
+		};
+	}
+
+	private static String format(double value) {
+		return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+	}
+
+}
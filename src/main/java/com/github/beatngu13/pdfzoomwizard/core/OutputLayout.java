@@ -0,0 +1,80 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Where modified PDFs are written: next to the originals (overwriting them or as <i>Filename&lt;infix&gt;.pdf</i>
+ * copies), or into {@link #outputRoot}, which mirrors the directory structure of {@link #sourceRoot}. The latter
+ * allows to read from a read-only share and to write to another volume.
+ *
+ * @param filenameInfix <i>Filename&lt;infix&gt;.pdf</i> for copies, <code>null</code> to keep the filename.
+ * @param sourceRoot    Directory whose structure is mirrored, <code>null</code> if there is no {@link #outputRoot}.
+ * @param outputRoot    Directory to mirror into, <code>null</code> to write next to the originals.
+ * @author Daniel Kraus
+ */
+record OutputLayout(String filenameInfix, Path sourceRoot, Path outputRoot) {
+
+	OutputLayout {
+		if ((sourceRoot == null) != (outputRoot == null)) {
+			throw new IllegalArgumentException("Source root and output root must be given together.");
+		}
+		if (outputRoot != null) {
+			sourceRoot = sourceRoot.toAbsolutePath().normalize();
+			outputRoot = outputRoot.toAbsolutePath().normalize();
+		}
+	}
+
+	/**
+	 * @param filenameInfix <i>Filename&lt;infix&gt;.pdf</i> for copies, <code>null</code> to overwrite.
+	 * @return Layout which writes next to the originals.
+	 */
+	static OutputLayout nextToOriginals(String filenameInfix) {
+		return new OutputLayout(filenameInfix, null, null);
+	}
+
+	/**
+	 * @param pdf PDF to be modified.
+	 * @return File to which the modified PDF is written.
+	 */
+	Path getTarget(Path pdf) {
+		if (outputRoot == null) {
+			return FileUtil.getTarget(pdf, filenameInfix);
+		}
+		var relativePath = sourceRoot.relativize(pdf.toAbsolutePath().normalize());
+		return FileUtil.getTarget(outputRoot.resolve(relativePath), filenameInfix);
+	}
+
+	/**
+	 * Like {@link #getTarget(Path)}, but also creates the parent directories of the target if needed. Hence,
+	 * directories of {@link #outputRoot} are only created once something is written into them.
+	 *
+	 * @param pdf PDF to be modified.
+	 * @return File to which the modified PDF is written.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	Path createTarget(Path pdf) throws IOException {
+		var target = getTarget(pdf);
+		if (outputRoot != null) {
+			Files.createDirectories(target.getParent());
+		}
+		return target;
+	}
+
+	/**
+	 * @return <code>true</code> if targets are separate files, <code>false</code> if the originals are overwritten.
+	 */
+	boolean isCopy() {
+		return filenameInfix != null || outputRoot != null;
+	}
+
+	/**
+	 * @param path File to check.
+	 * @return <code>true</code> if the file lies within {@link #outputRoot}, else <code>false</code>.
+	 */
+	boolean isOutput(Path path) {
+		return outputRoot != null && path.toAbsolutePath().normalize().startsWith(outputRoot);
+	}
+
+}
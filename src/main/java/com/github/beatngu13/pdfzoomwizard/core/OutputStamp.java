@@ -0,0 +1,106 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the settings (e.g. the zoom) with which the targets of an {@link OutputLayout} are written into its output
+ * root, and which targets have been written with them, so that targets written with other settings are not mistaken
+ * for up to date. Independent of modification times, hence also of their resolution.
+ * <p>
+ * The stamp is a small file in the output root, one per filename infix: the first line holds the settings, each
+ * further line the path of a target (relative to the output root) which has been written with them. If the settings
+ * differ, the recorded targets are dropped. Targets are appended once written, so an interrupted run only loses the
+ * targets which are written again anyway. Thread-safe.
+ *
+ * @author Daniel Kraus
+ */
+final class OutputStamp {
+
+	/**
+	 * Name of the stamp file, the filename infix is inserted like for targets.
+	 */
+	static final String FILENAME = ".pdfzoomwizard.settings";
+
+	private final Path file;
+	private final Path outputRoot;
+	private final Set<String> targets;
+
+	private OutputStamp(Path file, Path outputRoot, Set<String> targets) {
+		this.file = file;
+		this.outputRoot = outputRoot;
+		this.targets = targets;
+	}
+
+	/**
+	 * @param layout Layout with an output root.
+	 * @return Stamp file of the given layout.
+	 */
+	static Path getFile(OutputLayout layout) {
+		return FileUtil.getTarget(layout.outputRoot().resolve(FILENAME), layout.filenameInfix());
+	}
+
+	/**
+	 * Reads the stamp of the given layout and rewrites it with the given settings. Recorded targets are kept if they
+	 * have been written with the same settings, else dropped.
+	 *
+	 * @param layout   Layout with an output root.
+	 * @param settings Settings with which the targets are written, a single line.
+	 * @return Stamp to check and record targets with.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	static OutputStamp open(OutputLayout layout, String settings) throws IOException {
+		var file = getFile(layout);
+		var targets = ConcurrentHashMap.<String>newKeySet();
+		if (Files.exists(file)) {
+			var lines = Files.readAllLines(file);
+			if (!lines.isEmpty() && lines.get(0).equals(settings)) {
+				targets.addAll(lines.subList(1, lines.size()));
+			}
+		}
+		// Also drops duplicates of targets which have been written several times.
+		var lines = new ArrayList<>(List.of(settings));
+		lines.addAll(new TreeSet<>(targets));
+		Files.createDirectories(file.getParent());
+		Files.write(file, lines);
+		return new OutputStamp(file, layout.outputRoot(), targets);
+	}
+
+	/**
+	 * @param target Target to check.
+	 * @return <code>true</code> if the target has been written with the current settings, else <code>false</code>.
+	 */
+	boolean contains(Path target) {
+		return targets.contains(toKey(target));
+	}
+
+	/**
+	 * Records that the given target has been written with the current settings.
+	 *
+	 * @param target Target which has been written.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	synchronized void add(Path target) throws IOException {
+		var key = toKey(target);
+		// Such targets cannot be recorded line by line, hence are always written again.
+		if (key.contains("\n") || key.contains("\r")) {
+			return;
+		}
+		if (targets.add(key)) {
+			Files.writeString(file, key + System.lineSeparator(), StandardOpenOption.APPEND);
+		}
+	}
+
+	private String toKey(Path target) {
+		return outputRoot.relativize(target.toAbsolutePath().normalize()).toString().replace(File.separatorChar, '/');
+	}
+
+}
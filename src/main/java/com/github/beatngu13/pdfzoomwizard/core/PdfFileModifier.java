@@ -0,0 +1,271 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.pdfclown.files.SerializationModeEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Modifies PDF files (and ZIP archives of PDF files, see {@link ZipModifier}) within the current process. If the
+ * fast outline path is enabled (and links are left as they are), each PDF is first patched by {@link OutlinePatcher},
+ * which falls back to PDF Clown's document model if the PDF is not supported.
+ * <p>
+ * If a {@link #timeout} is given, each file is modified on a separate thread which is abandoned once the timeout
+ * has elapsed. PDF Clown doesn't respond to interruption, so an abandoned thread may keep running in the background,
+ * but the {@link CommitGuard} prevents it from touching the file. Use {@link WorkerPool} to actually stop such work.
+ *
+ * @author Daniel Kraus
+ */
+final class PdfFileModifier implements FileModifier {
+
+	private static final Logger logger = LoggerFactory.getLogger(PdfFileModifier.class);
+
+	/**
+	 * File extension for PDFs.
+	 */
+	static final String PDF_FILE_EXTENSION = ".pdf";
+	/**
+	 * @see SerializationModeEnum
+	 */
+	private static final SerializationModeEnum SERIALIZATION_MODE = SerializationModeEnum.Incremental;
+
+	/**
+	 * Where the modified PDFs are written.
+	 */
+	private final OutputLayout outputLayout;
+	/**
+	 * Wall-clock time budget per file, <code>null</code> for no limit.
+	 */
+	private final Duration timeout;
+	/**
+	 * Applies the zoom to the bookmarks of each PDF file without PDF Clown's document model, <code>null</code> to
+	 * always use {@link #bookmarkModifier}.
+	 */
+	private final OutlinePatcher outlinePatcher;
+	/**
+	 * Applies the zoom to the bookmarks of each PDF file.
+	 */
+	private final BookmarkModifier bookmarkModifier;
+	/**
+	 * Applies the zoom to the links of each PDF file, <code>null</code> if links are left as they are.
+	 */
+	private final LinkModifier linkModifier;
+	/**
+	 * Applies the zoom to the PDFs inside each ZIP archive.
+	 */
+	private final ZipModifier zipModifier;
+
+	/**
+	 * Creates a new <code>PdfFileModifier</code> instance, which always uses PDF Clown's document model.
+	 *
+	 * @param zoom          Zoom to apply to all bookmarks.
+	 * @param modifyLinks   Whether to apply the zoom to links as well.
+	 * @param outputLayout  Sets {@link #outputLayout}.
+	 * @param timeout       Sets {@link #timeout}.
+	 */
+	PdfFileModifier(Zoom zoom, boolean modifyLinks, OutputLayout outputLayout, Duration timeout) {
+		this(zoom, modifyLinks, false, outputLayout, timeout);
+	}
+
+	/**
+	 * Creates a new <code>PdfFileModifier</code> instance.
+	 *
+	 * @param zoom          Zoom to apply to all bookmarks.
+	 * @param modifyLinks   Whether to apply the zoom to links as well.
+	 * @param fastOutline   Whether to try {@link OutlinePatcher} first, ignored if links are modified.
+	 * @param outputLayout  Sets {@link #outputLayout}.
+	 * @param timeout       Sets {@link #timeout}.
+	 */
+	PdfFileModifier(Zoom zoom, boolean modifyLinks, boolean fastOutline, OutputLayout outputLayout,
+					Duration timeout) {
+		this(fastOutline && !modifyLinks ? new OutlinePatcher(zoom) : null, new BookmarkModifier(zoom),
+				modifyLinks ? new LinkModifier(zoom) : null, outputLayout, timeout);
+	}
+
+	/**
+	 * Visible for testing.
+	 */
+	PdfFileModifier(OutlinePatcher outlinePatcher, BookmarkModifier bookmarkModifier, LinkModifier linkModifier,
+					OutputLayout outputLayout, Duration timeout) {
+		this.outlinePatcher = outlinePatcher;
+		this.bookmarkModifier = bookmarkModifier;
+		this.linkModifier = linkModifier;
+		this.zipModifier = new ZipModifier(bookmarkModifier, linkModifier);
+		this.outputLayout = outputLayout;
+		this.timeout = timeout;
+	}
+
+	@Override
+	public int modify(Path pdf) throws Exception {
+		return modifyWithin(timeout, pdf, this::modify);
+	}
+
+	/**
+	 * Modification of a file which only replaces its target(s) if the guard allows to commit.
+	 */
+	@FunctionalInterface
+	interface GuardedModification {
+
+		int modify(Path pdf, CommitGuard guard) throws IOException;
+
+	}
+
+	/**
+	 * Runs the given modification, on a separate thread which is abandoned after the given timeout if there is one.
+	 *
+	 * @param timeout      Wall-clock time budget, <code>null</code> for no limit.
+	 * @param pdf          File to modify.
+	 * @param modification Modification to run.
+	 * @return Result of the modification.
+	 * @throws Exception If the modification failed or the timeout has been exceeded.
+	 */
+	static int modifyWithin(Duration timeout, Path pdf, GuardedModification modification) throws Exception {
+		var guard = new CommitGuard();
+		if (timeout == null) {
+			return modification.modify(pdf, guard);
+		}
+
+		var task = new FutureTask<>(() -> modification.modify(pdf, guard));
+		var thread = new Thread(task, "modifier-" + pdf.getFileName());
+		// Must not keep the JVM alive if abandoned.
+		thread.setDaemon(true);
+		thread.start();
+		try {
+			return task.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			if (!guard.abandon()) {
+				// Already saving, which is only bound by I/O.
+				return getResult(task);
+			}
+			thread.interrupt();
+			throw new TimeoutException("Time budget of %d ms exceeded.".formatted(timeout.toMillis()));
+		} catch (ExecutionException e) {
+			throw unwrap(e);
+		} catch (InterruptedException e) {
+			guard.abandon();
+			thread.interrupt();
+			throw e;
+		}
+	}
+
+	private static int getResult(FutureTask<Integer> task) throws Exception {
+		try {
+			return task.get();
+		} catch (ExecutionException e) {
+			throw unwrap(e);
+		}
+	}
+
+	private static Exception unwrap(ExecutionException e) {
+		return e.getCause() instanceof Exception cause ? cause : e;
+	}
+
+	private int modify(Path pdf, CommitGuard guard) throws IOException {
+		if (ZipModifier.isZip(pdf)) {
+			return modifyZip(pdf, guard);
+		}
+		if (outlinePatcher != null) {
+			var count = patchPdf(pdf, guard);
+			if (count != null) {
+				return count;
+			}
+		}
+		try (var file = new org.pdfclown.files.File(pdf.toAbsolutePath().toString())) {
+			var document = file.getDocument();
+			var count = bookmarkModifier.modifyBookmarks(document.getBookmarks());
+			if (linkModifier != null) {
+				count += linkModifier.modifyLinks(document.getPages());
+			}
+			savePdf(file, pdf, guard);
+			return count;
+		}
+	}
+
+	/**
+	 * Patches the given PDF using {@link #outlinePatcher} into a part file, which replaces the target according to
+	 * {@link #outputLayout} only if the guard allows to commit.
+	 *
+	 * @param pdf   PDF to be modified.
+	 * @param guard Decides whether the target may be replaced.
+	 * @return Number of modified bookmarks, <code>null</code> if the PDF is not supported by the fast path.
+	 * @throws IOException If an I/O error occurs or the modification has been abandoned.
+	 */
+	private Integer patchPdf(Path pdf, CommitGuard guard) throws IOException {
+		var target = outputLayout.createTarget(pdf);
+		var part = FileUtil.getPartFile(target);
+		try {
+			int count;
+			try {
+				count = outlinePatcher.patch(pdf, part);
+			} catch (IOException | RuntimeException e) {
+				logger.debug("Falling back to PDF Clown for '{}': {}", pdf, e.toString());
+				return null;
+			}
+			if (!guard.commit()) {
+				throw new IOException("Modification of '%s' has been abandoned.".formatted(pdf));
+			}
+			FileUtil.replace(part, target);
+			return count;
+		} finally {
+			Files.deleteIfExists(part);
+		}
+	}
+
+	/**
+	 * Streams the given ZIP archive into a part file, which replaces the target according to {@link #outputLayout}
+	 * only if the guard allows to commit.
+	 *
+	 * @param zip   ZIP archive to be modified.
+	 * @param guard Decides whether the target may be replaced.
+	 * @return Number of modified bookmarks (and links) of all PDFs inside the archive.
+	 * @throws IOException If an I/O error occurs or the modification has been abandoned.
+	 */
+	private int modifyZip(Path zip, CommitGuard guard) throws IOException {
+		var target = outputLayout.createTarget(zip);
+		var part = FileUtil.getPartFile(target);
+		try {
+			var count = zipModifier.modifyZip(zip, part, target.getParent());
+			if (!guard.commit()) {
+				throw new IOException("Modification of '%s' has been abandoned.".formatted(zip));
+			}
+			FileUtil.replace(part, target);
+			return count;
+		} finally {
+			Files.deleteIfExists(part);
+		}
+	}
+
+	/**
+	 * Saves the given PDF to its target according to {@link #outputLayout}. The
+	 * PDF is written to a part file first, which replaces the target only if the guard allows to commit.
+	 *
+	 * @param file  PDF to be saved.
+	 * @param pdf   Path of the PDF.
+	 * @param guard Decides whether the target may be replaced.
+	 * @throws IOException If an I/O error occurs or the modification has been abandoned.
+	 */
+	private void savePdf(org.pdfclown.files.File file, Path pdf, CommitGuard guard) throws IOException {
+		var target = outputLayout.createTarget(pdf);
+		var part = FileUtil.getPartFile(target);
+		try {
+			file.save(part.toFile(), SERIALIZATION_MODE);
+			if (!guard.commit()) {
+				throw new IOException("Modification of '%s' has been abandoned.".formatted(pdf));
+			}
+			// Release the original before replacing it.
+			file.close();
+			FileUtil.replace(part, target);
+		} finally {
+			Files.deleteIfExists(part);
+		}
+	}
+
+}
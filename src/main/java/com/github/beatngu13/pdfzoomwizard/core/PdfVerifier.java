@@ -0,0 +1,142 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.pdfclown.documents.Document;
+import org.pdfclown.documents.Page;
+import org.pdfclown.documents.interaction.annotations.Annotation;
+import org.pdfclown.documents.interaction.annotations.Link;
+import org.pdfclown.documents.interaction.navigation.document.Bookmark;
+import org.pdfclown.documents.interaction.navigation.document.Bookmarks;
+import org.pdfclown.objects.PdfName;
+import org.pdfclown.objects.PdfObjectWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Re-opens a written PDF and checks that every reachable bookmark destination (and, if enabled, link destination)
+ * carries the zoom. Destinations which cannot be resolved are not reachable, so they are ignored just like
+ * {@link BookmarkModifier} and {@link LinkModifier} skip them. Holds no state besides its configuration, hence an
+ * instance can be shared between threads.
+ *
+ * @author Daniel Kraus
+ */
+final class PdfVerifier {
+
+	private static final Logger logger = LoggerFactory.getLogger(PdfVerifier.class);
+
+	/**
+	 * Checks the destinations.
+	 */
+	private final DestinationModifier destinationModifier;
+	/**
+	 * Indicates whether link destinations are checked as well.
+	 */
+	private final boolean verifyLinks;
+
+	/**
+	 * Creates a new <code>PdfVerifier</code> instance.
+	 *
+	 * @param zoom        Zoom which all destinations must carry.
+	 * @param verifyLinks Sets {@link #verifyLinks}.
+	 */
+	PdfVerifier(Zoom zoom, boolean verifyLinks) {
+		this.destinationModifier = new DestinationModifier(zoom);
+		this.verifyLinks = verifyLinks;
+	}
+
+	/**
+	 * @param pdf PDF (or ZIP archive of PDFs) to verify.
+	 * @return Number of reachable destinations which don't carry the zoom.
+	 * @throws IOException If the PDF cannot be read.
+	 */
+	int verify(Path pdf) throws IOException {
+		if (ZipModifier.isZip(pdf)) {
+			return verifyZip(pdf);
+		}
+		try (var file = new org.pdfclown.files.File(pdf.toAbsolutePath().toString())) {
+			return countUnmodified(file.getDocument());
+		}
+	}
+
+	/**
+	 * Streams the PDF entries of the given ZIP archive like {@link ZipModifier} does.
+	 */
+	private int verifyZip(Path zip) throws IOException {
+		var count = 0;
+		try (var zipInput = new ZipInputStream(new BufferedInputStream(Files.newInputStream(zip)))) {
+			ZipEntry entry;
+			while ((entry = zipInput.getNextEntry()) != null) {
+				if (!ZipModifier.isPdf(entry)) {
+					continue;
+				}
+				try (var content = ZipModifier.read(zipInput, zip.toAbsolutePath().getParent())) {
+					count += countUnmodified(new org.pdfclown.files.File(content.stream()).getDocument());
+				} catch (RuntimeException e) {
+					throw new IOException("Cannot read entry '%s'.".formatted(entry.getName()), e);
+				}
+			}
+		}
+		return count;
+	}
+
+	private int countUnmodified(Document document) {
+		var count = countUnmodifiedBookmarks(document.getBookmarks());
+		if (verifyLinks) {
+			for (Page page : document.getPages()) {
+				count += countUnmodifiedLinks(page);
+			}
+		}
+		return count;
+	}
+
+	private int countUnmodifiedBookmarks(Bookmarks bookmarks) {
+		var count = 0;
+		Bookmark previous = null;
+		for (Bookmark bookmark : bookmarks) {
+			// Bookmarks#iterator() might be endless, see BookmarkModifier.
+			if (bookmark.equals(previous)) {
+				break;
+			}
+			Bookmarks children = bookmark.getBookmarks();
+			if (children.size() != 0) {
+				count += countUnmodifiedBookmarks(children);
+			}
+			if (isUnmodified(bookmark.getTarget())) {
+				logger.debug("Bookmark '{}' doesn't carry the zoom.", BookmarkUtil.getLazyTitle(bookmark));
+				count++;
+			}
+			previous = bookmark;
+		}
+		return count;
+	}
+
+	private int countUnmodifiedLinks(Page page) {
+		if (!page.getBaseDataObject().containsKey(PdfName.Annots)) {
+			return 0;
+		}
+		var count = 0;
+		for (Annotation annotation : page.getAnnotations()) {
+			if (annotation instanceof Link link && isUnmodified(link.getTarget())) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private boolean isUnmodified(PdfObjectWrapper<?> target) {
+		try {
+			var destination = target == null ? null : destinationModifier.getDestination(target);
+			return destination != null && !destinationModifier.isModified(destination);
+		} catch (RuntimeException e) {
+			// Not reachable, hasn't been modified either.
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,515 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal reader of PDF objects, which only parses what it is asked for: the trailers, the subsection headers of the
+ * cross-reference tables and single indirect objects by number. Cross-reference entries are fixed-size [PDF:1.7:7.5.4],
+ * so each one is only read when its object is, hence memory and time scale with the number of accessed objects rather
+ * than with the size of the document. Objects are modelled as {@link Map} (dictionaries, keyed by name without
+ * <i>/</i>), {@link List} (arrays), {@link Name}, {@link Ref} and {@link Token} (everything else, kept verbatim), so
+ * that they can be written back unchanged by {@link RawPdfWriter}.
+ * <p>
+ * Only classic cross-reference tables are supported. Cross-reference streams, hybrid files, encrypted files and
+ * indirect streams are rejected with an {@link IOException}, so that callers can fall back to PDF Clown. Only used by
+ * {@link OutlinePatcher}, hence only if the fast outline path is enabled (<i>--fast-outline</i>). Not thread-safe.
+ *
+ * @author Daniel Kraus
+ */
+final class RawPdfReader implements AutoCloseable {
+
+	/**
+	 * Number of bytes at the end of the file which are searched for <i>startxref</i>.
+	 */
+	private static final int TAIL_SIZE = 1024;
+	/**
+	 * Number of bytes which are read at once, doubled until a section or object is complete.
+	 */
+	private static final int CHUNK_SIZE = 4096;
+	/**
+	 * Number of bytes which are read for a subsection header (or the <i>trailer</i> keyword).
+	 */
+	private static final int HEADER_SIZE = 64;
+	/**
+	 * Size of a cross-reference entry, including the two-byte end-of-line marker.
+	 */
+	private static final int ENTRY_SIZE = 20;
+
+	/**
+	 * Reference to an indirect object.
+	 */
+	record Ref(int number, int generation) {
+	}
+
+	/**
+	 * Name object, <code>raw</code> is the name as written (without <i>/</i>, escapes included).
+	 */
+	record Name(String raw) {
+	}
+
+	/**
+	 * Any other direct object (number, string, boolean or null) as written.
+	 */
+	record Token(String raw) {
+
+		static final Token NULL = new Token("null");
+
+	}
+
+	/**
+	 * Location of an indirect object.
+	 */
+	private record Entry(long offset, int generation) {
+
+		static final Entry FREE = new Entry(-1, -1);
+
+	}
+
+	/**
+	 * Cross-reference subsection whose entries have not been read yet.
+	 *
+	 * @param first         Number of the first object.
+	 * @param count         Number of entries.
+	 * @param entriesOffset Offset of the first entry.
+	 */
+	private record Subsection(int first, int count, long entriesOffset) {
+
+		boolean contains(int number) {
+			return number >= first && number - first < count;
+		}
+
+	}
+
+	private final FileChannel channel;
+	private final long length;
+	/**
+	 * Offset of the last cross-reference section.
+	 */
+	private final long startXref;
+	/**
+	 * Trailer of the last cross-reference section.
+	 */
+	private final Map<String, Object> trailer;
+	/**
+	 * Subsections of all cross-reference sections, newest section first.
+	 */
+	private final List<Subsection> subsections = new ArrayList<>();
+	/**
+	 * Location of each accessed object, as of the last cross-reference section.
+	 */
+	private final Map<Integer, Entry> entries = new HashMap<>();
+	private final Map<Integer, Object> objects = new HashMap<>();
+
+	/**
+	 * Opens the given PDF and reads its cross-reference tables.
+	 *
+	 * @param pdf PDF to read.
+	 * @throws IOException If an I/O error occurs or the PDF is not supported.
+	 */
+	RawPdfReader(Path pdf) throws IOException {
+		channel = FileChannel.open(pdf, StandardOpenOption.READ);
+		try {
+			length = channel.size();
+			startXref = readStartXref();
+			trailer = readXrefSections(startXref);
+			if (trailer.containsKey("Encrypt")) {
+				throw new IOException("Encrypted PDFs are not supported.");
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return Length of the PDF in bytes.
+	 */
+	long getLength() {
+		return length;
+	}
+
+	/**
+	 * @return Offset of the last cross-reference section.
+	 */
+	long getStartXref() {
+		return startXref;
+	}
+
+	/**
+	 * @return Trailer of the last cross-reference section.
+	 */
+	Map<String, Object> getTrailer() {
+		return trailer;
+	}
+
+	/**
+	 * @param object Object to resolve.
+	 * @return The referenced object if the given object is a {@link Ref}, else the object itself.
+	 * @throws IOException If an I/O error occurs or the referenced object is not supported.
+	 */
+	Object resolve(Object object) throws IOException {
+		return object instanceof Ref ref ? getObject(ref) : object;
+	}
+
+	/**
+	 * Reads the given indirect object. Each object is only parsed once, so that changes to it are visible to all
+	 * later callers.
+	 *
+	 * @param ref Reference to the object.
+	 * @return Object, {@link Token#NULL} if it does not exist.
+	 * @throws IOException If an I/O error occurs or the object is not supported.
+	 */
+	Object getObject(Ref ref) throws IOException {
+		var object = objects.get(ref.number());
+		if (object == null) {
+			object = readObject(ref);
+			objects.put(ref.number(), object);
+		}
+		return object;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private long readStartXref() throws IOException {
+		var tailSize = (int) Math.min(TAIL_SIZE, length);
+		var tail = new String(read(length - tailSize, tailSize), StandardCharsets.ISO_8859_1);
+		var index = tail.lastIndexOf("startxref");
+		if (index < 0) {
+			throw new IOException("Missing startxref.");
+		}
+		var parser = new Parser(tail.substring(index + "startxref".length()).getBytes(StandardCharsets.ISO_8859_1));
+		return Long.parseLong(parser.nextToken());
+	}
+
+	/**
+	 * Reads the cross-reference section at the given offset and all previous ones.
+	 *
+	 * @return Trailer of the section at the given offset.
+	 */
+	private Map<String, Object> readXrefSections(long offset) throws IOException {
+		Map<String, Object> newestTrailer = null;
+		var visited = new ArrayList<Long>();
+		while (true) {
+			if (visited.contains(offset)) {
+				throw new IOException("Cyclic cross-reference sections.");
+			}
+			visited.add(offset);
+			var trailer = readXrefSection(offset);
+			if (newestTrailer == null) {
+				newestTrailer = trailer;
+			}
+			if (trailer.containsKey("XRefStm")) {
+				throw new IOException("Hybrid cross-references are not supported.");
+			}
+			if (!(trailer.get("Prev") instanceof Token prev)) {
+				return newestTrailer;
+			}
+			offset = Long.parseLong(prev.raw());
+		}
+	}
+
+	private Map<String, Object> readXrefSection(long offset) throws IOException {
+		var header = new Parser(readHeader(offset));
+		if (!header.nextToken().equals("xref")) {
+			throw new IOException("Cross-reference streams are not supported.");
+		}
+		var position = offset + header.position;
+		while (true) {
+			header = new Parser(readHeader(position));
+			var token = header.nextToken();
+			if (token.equals("trailer")) {
+				break;
+			}
+			var first = parseInt(token);
+			var count = parseInt(header.nextToken());
+			header.skipWhitespace();
+			// Entries are skipped, see #readEntry(Subsection, int).
+			var entriesOffset = position + header.position;
+			subsections.add(new Subsection(first, count, entriesOffset));
+			position = entriesOffset + (long) count * ENTRY_SIZE;
+		}
+		var parser = new Parser(readUntil(position, "startxref"));
+		parser.nextToken();
+		if (!(parser.nextObject() instanceof Map<?, ?> trailer)) {
+			throw new IOException("Invalid trailer at offset %d.".formatted(offset));
+		}
+		@SuppressWarnings("unchecked")
+		var result = (Map<String, Object>) trailer;
+		return result;
+	}
+
+	/**
+	 * @return Location of the given object, <code>null</code> if it has no entry.
+	 */
+	private Entry getEntry(int number) throws IOException {
+		var entry = entries.get(number);
+		if (entry == null) {
+			// Newer sections come first and take precedence, free entries as well.
+			for (var subsection : subsections) {
+				if (subsection.contains(number)) {
+					entry = readEntry(subsection, number);
+					entries.put(number, entry);
+					break;
+				}
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Reads an entry of the form <code>nnnnnnnnnn ggggg n</code> followed by a two-byte end-of-line marker. Writers
+	 * which deviate from the fixed size are rejected, since the entry would be read from the wrong offset.
+	 */
+	private Entry readEntry(Subsection subsection, int number) throws IOException {
+		var offset = subsection.entriesOffset() + (long) (number - subsection.first()) * ENTRY_SIZE;
+		var entry = new String(read(offset, ENTRY_SIZE), StandardCharsets.ISO_8859_1);
+		if (!entry.matches("\\d{10} \\d{5} [nf][ \\r\\n]{2}")) {
+			throw new IOException("Invalid cross-reference entry for object %d at offset %d.".formatted(number,
+					offset));
+		}
+		if (entry.charAt(17) == 'f') {
+			return Entry.FREE;
+		}
+		return new Entry(Long.parseLong(entry.substring(0, 10)), Integer.parseInt(entry.substring(11, 16)));
+	}
+
+	private Object readObject(Ref ref) throws IOException {
+		var entry = getEntry(ref.number());
+		if (entry == null || entry == Entry.FREE) {
+			return Token.NULL;
+		}
+		var parser = new Parser(readUntil(entry.offset(), "endobj"));
+		var number = Integer.parseInt(parser.nextToken());
+		var generation = Integer.parseInt(parser.nextToken());
+		if (number != ref.number() || generation != entry.generation() || !parser.nextToken().equals("obj")) {
+			throw new IOException("Invalid object %d at offset %d.".formatted(ref.number(), entry.offset()));
+		}
+		var object = parser.nextObject();
+		if (!parser.nextToken().equals("endobj")) {
+			throw new IOException("Streams are not supported (object %d).".formatted(ref.number()));
+		}
+		return object;
+	}
+
+	private byte[] readHeader(long offset) throws IOException {
+		return read(offset, (int) Math.min(HEADER_SIZE, length - offset));
+	}
+
+	private static int parseInt(String token) throws IOException {
+		try {
+			return Integer.parseInt(token);
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid cross-reference subsection header '%s'.".formatted(token), e);
+		}
+	}
+
+	/**
+	 * Reads from the given offset until the given keyword has been read or the end of the file is reached.
+	 */
+	private byte[] readUntil(long offset, String keyword) throws IOException {
+		var size = CHUNK_SIZE;
+		while (true) {
+			var bytes = read(offset, (int) Math.min(size, length - offset));
+			if (offset + bytes.length >= length
+					|| new String(bytes, StandardCharsets.ISO_8859_1).contains(keyword)) {
+				return bytes;
+			}
+			size *= 2;
+		}
+	}
+
+	private byte[] read(long offset, int size) throws IOException {
+		if (offset < 0 || size < 0) {
+			throw new IOException("Invalid offset %d.".formatted(offset));
+		}
+		var buffer = ByteBuffer.allocate(size);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, offset + buffer.position()) < 0) {
+				break;
+			}
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * Parses objects from a byte array, see [PDF:1.7:7.2-7.3].
+	 */
+	private static final class Parser {
+
+		private final byte[] bytes;
+		private int position;
+
+		private Parser(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		Object nextObject() throws IOException {
+			skipWhitespace();
+			var c = peek();
+			switch (c) {
+				case '/' -> {
+					position++;
+					return new Name(readRegular());
+				}
+				case '[' -> {
+					position++;
+					var array = new ArrayList<>();
+					while (true) {
+						skipWhitespace();
+						if (peek() == ']') {
+							position++;
+							return array;
+						}
+						array.add(nextObject());
+					}
+				}
+				case '<' -> {
+					if (peek(1) != '<') {
+						return new Token(readHexString());
+					}
+					position += 2;
+					var dictionary = new LinkedHashMap<String, Object>();
+					while (true) {
+						skipWhitespace();
+						if (peek() == '>' && peek(1) == '>') {
+							position += 2;
+							return dictionary;
+						}
+						if (!(nextObject() instanceof Name key)) {
+							throw new IOException("Dictionary key must be a name.");
+						}
+						dictionary.put(key.raw(), nextObject());
+					}
+				}
+				case '(' -> {
+					return new Token(readLiteralString());
+				}
+				default -> {
+					var token = readRegular();
+					if (token.isEmpty()) {
+						throw new IOException("Unexpected character '%c'.".formatted(c));
+					}
+					return isInteger(token) ? readRefOrInteger(token) : new Token(token);
+				}
+			}
+		}
+
+		String nextToken() throws IOException {
+			skipWhitespace();
+			var token = readRegular();
+			if (token.isEmpty()) {
+				throw new IOException("Unexpected character '%c'.".formatted(peek()));
+			}
+			return token;
+		}
+
+		private Object readRefOrInteger(String number) throws IOException {
+			var mark = position;
+			skipWhitespace();
+			var generation = position < bytes.length ? readRegular() : "";
+			if (isInteger(generation)) {
+				skipWhitespace();
+				if (position < bytes.length && readRegular().equals("R")) {
+					return new Ref(Integer.parseInt(number), Integer.parseInt(generation));
+				}
+			}
+			position = mark;
+			return new Token(number);
+		}
+
+		private String readRegular() {
+			var start = position;
+			while (position < bytes.length && isRegular(bytes[position])) {
+				position++;
+			}
+			return new String(bytes, start, position - start, StandardCharsets.ISO_8859_1);
+		}
+
+		private String readHexString() throws IOException {
+			var start = position;
+			while (peek() != '>') {
+				position++;
+			}
+			position++;
+			return new String(bytes, start, position - start, StandardCharsets.ISO_8859_1);
+		}
+
+		private String readLiteralString() throws IOException {
+			var start = position;
+			var depth = 0;
+			do {
+				var c = peek();
+				position++;
+				if (c == '\\') {
+					position++;
+				} else if (c == '(') {
+					depth++;
+				} else if (c == ')') {
+					depth--;
+				}
+			} while (depth > 0);
+			return new String(bytes, start, position - start, StandardCharsets.ISO_8859_1);
+		}
+
+		private void skipWhitespace() {
+			while (position < bytes.length) {
+				var c = bytes[position];
+				if (c == '%') {
+					while (position < bytes.length && bytes[position] != '\n' && bytes[position] != '\r') {
+						position++;
+					}
+				} else if (isWhitespace(c)) {
+					position++;
+				} else {
+					return;
+				}
+			}
+		}
+
+		private int peek() throws IOException {
+			return peek(0);
+		}
+
+		private int peek(int ahead) throws IOException {
+			if (position + ahead >= bytes.length) {
+				throw new IOException("Unexpected end of data.");
+			}
+			return bytes[position + ahead];
+		}
+
+		private static boolean isInteger(String token) {
+			if (token.isEmpty()) {
+				return false;
+			}
+			for (int i = 0; i < token.length(); i++) {
+				if (!Character.isDigit(token.charAt(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean isWhitespace(byte c) {
+			return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f' || c == 0;
+		}
+
+		private static boolean isRegular(byte c) {
+			return !isWhitespace(c) && "()<>[]{}/%".indexOf(c) < 0;
+		}
+
+	}
+
+}
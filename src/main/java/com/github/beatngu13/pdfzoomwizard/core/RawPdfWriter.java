@@ -0,0 +1,123 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import com.github.beatngu13.pdfzoomwizard.core.RawPdfReader.Name;
+import com.github.beatngu13.pdfzoomwizard.core.RawPdfReader.Ref;
+import com.github.beatngu13.pdfzoomwizard.core.RawPdfReader.Token;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Appends incremental updates [PDF:1.7:7.5.6] of objects which have been read by {@link RawPdfReader}. Only the
+ * given objects are written, followed by a cross-reference section for them and a trailer which points to the
+ * previous section.
+ *
+ * @author Daniel Kraus
+ */
+final class RawPdfWriter {
+
+	private RawPdfWriter() {
+	}
+
+	/**
+	 * Appends an incremental update to the given file, which must be a copy of the PDF read by the given reader.
+	 *
+	 * @param pdf     File to append to.
+	 * @param reader  Reader of the original PDF.
+	 * @param objects Changed objects to write.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	static void appendUpdate(Path pdf, RawPdfReader reader, Map<Ref, Object> objects) throws IOException {
+		var update = new StringBuilder("\n");
+		var offsets = new TreeMap<Integer, Long>();
+		var generations = new LinkedHashMap<Integer, Integer>();
+		for (var object : objects.entrySet()) {
+			var ref = object.getKey();
+			offsets.put(ref.number(), reader.getLength() + update.length());
+			generations.put(ref.number(), ref.generation());
+			update.append(ref.number()).append(' ').append(ref.generation()).append(" obj\n");
+			write(object.getValue(), update);
+			update.append("\nendobj\n");
+		}
+
+		var xrefOffset = reader.getLength() + update.length();
+		update.append("xref\n");
+		for (var subsection : toSubsections(List.copyOf(offsets.keySet()))) {
+			update.append(subsection.get(0)).append(' ').append(subsection.size()).append('\n');
+			for (var number : subsection) {
+				// Each entry has exactly 20 bytes.
+				update.append("%010d %05d n\r\n".formatted(offsets.get(number), generations.get(number)));
+			}
+		}
+		var trailer = new LinkedHashMap<>(reader.getTrailer());
+		trailer.put("Prev", new Token(String.valueOf(reader.getStartXref())));
+		update.append("trailer\n");
+		write(trailer, update);
+		update.append("\nstartxref\n").append(xrefOffset).append("\n%%EOF\n");
+
+		try (var output = new BufferedOutputStream(Files.newOutputStream(pdf, StandardOpenOption.APPEND))) {
+			output.write(update.toString().getBytes(StandardCharsets.ISO_8859_1));
+		}
+	}
+
+	/**
+	 * @param numbers Sorted object numbers.
+	 * @return Runs of consecutive object numbers.
+	 */
+	private static List<List<Integer>> toSubsections(List<Integer> numbers) {
+		var subsections = new ArrayList<List<Integer>>();
+		List<Integer> subsection = null;
+		for (var number : numbers) {
+			if (subsection == null || subsection.get(subsection.size() - 1) != number - 1) {
+				subsection = new ArrayList<>();
+				subsections.add(subsection);
+			}
+			subsection.add(number);
+		}
+		return subsections;
+	}
+
+	/**
+	 * Writes the given object as modelled by {@link RawPdfReader}.
+	 *
+	 * @param object Object to write.
+	 * @param output Output to append to.
+	 */
+	static void write(Object object, StringBuilder output) {
+		if (object instanceof Map<?, ?> dictionary) {
+			output.append("<<");
+			dictionary.forEach((key, value) -> {
+				output.append('/').append(key).append(' ');
+				write(value, output);
+			});
+			output.append(">>");
+		} else if (object instanceof List<?> array) {
+			output.append('[');
+			for (int i = 0; i < array.size(); i++) {
+				if (i > 0) {
+					output.append(' ');
+				}
+				write(array.get(i), output);
+			}
+			output.append(']');
+		} else if (object instanceof Name name) {
+			output.append('/').append(name.raw());
+		} else if (object instanceof Ref ref) {
+			output.append(ref.number()).append(' ').append(ref.generation()).append(" R");
+		} else if (object instanceof Token token) {
+			output.append(token.raw());
+		} else {
+			throw new IllegalArgumentException("Unknown object " + object + ".");
+		}
+	}
+
+}
@@ -0,0 +1,155 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Outcome of a {@link Wizard} run, one {@link Entry} per file. Reports are written as tab-separated values and can
+ * be merged, e.g. those of several {@link Shard}s. Adding entries is thread-safe.
+ *
+ * @author Daniel Kraus
+ */
+public final class Report {
+
+	/**
+	 * Outcome of a single file.
+	 */
+	public enum Status {
+		/**
+		 * The file's bookmarks have been modified and the file has been saved.
+		 */
+		MODIFIED,
+		/**
+		 * The file is identical to a modified file, whose result has been reused.
+		 */
+		DUPLICATE,
+		/**
+		 * The file's target is not older than the file itself, hence it has been left as it is.
+		 */
+		UP_TO_DATE,
+		/**
+		 * The file could not be processed.
+		 */
+		FAILED,
+		/**
+		 * The file has exceeded its time budget and has been left untouched.
+		 */
+		TIMED_OUT,
+		/**
+		 * The file has been modified, but the result failed verification and has been rolled back.
+		 */
+		VERIFICATION_FAILED,
+		/**
+		 * The file is not a PDF.
+		 */
+		SKIPPED
+	}
+
+	/**
+	 * @param path          Path of the file relative to the processed root, separated by <i>/</i>.
+	 * @param status        Outcome of the file.
+	 * @param bookmarkCount Number of modified bookmarks.
+	 * @param millis        Processing time in milliseconds.
+	 */
+	public record Entry(String path, Status status, int bookmarkCount, long millis) {
+	}
+
+	private static final String SEPARATOR = "\t";
+	private static final String HEADER = String.join(SEPARATOR, "status", "bookmarks", "millis", "path");
+
+	private final List<Entry> entries = new ArrayList<>();
+
+	/**
+	 * Reads a report which has been written by {@link #write(Path)}.
+	 *
+	 * @param file File to read.
+	 * @return Read report.
+	 * @throws IOException If an I/O error occurs or the file is not a report.
+	 */
+	public static Report read(Path file) throws IOException {
+		var lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		if (lines.isEmpty() || !lines.get(0).equals(HEADER)) {
+			throw new IOException("File '%s' is not a report.".formatted(file));
+		}
+		var report = new Report();
+		for (var line : lines.subList(1, lines.size())) {
+			// Path is last, hence may contain separators.
+			var columns = line.split(SEPARATOR, 4);
+			if (columns.length != 4) {
+				throw new IOException("Invalid report line '%s' in '%s'.".formatted(line, file));
+			}
+			try {
+				report.add(new Entry(columns[3], Status.valueOf(columns[0]), Integer.parseInt(columns[1]),
+						Long.parseLong(columns[2])));
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Invalid report line '%s' in '%s'.".formatted(line, file), e);
+			}
+		}
+		return report;
+	}
+
+	/**
+	 * @param reports Reports to merge.
+	 * @return New report containing the entries of all given reports.
+	 */
+	public static Report merge(Collection<Report> reports) {
+		var merged = new Report();
+		reports.forEach(report -> report.getEntries().forEach(merged::add));
+		return merged;
+	}
+
+	/**
+	 * Writes this report as tab-separated values.
+	 *
+	 * @param file File to write to.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public void write(Path file) throws IOException {
+		var lines = new ArrayList<String>();
+		lines.add(HEADER);
+		for (var entry : getEntries()) {
+			lines.add(String.join(SEPARATOR, entry.status().name(), String.valueOf(entry.bookmarkCount()),
+					String.valueOf(entry.millis()), entry.path()));
+		}
+		Files.write(file, lines, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @param entry Entry to add.
+	 */
+	public synchronized void add(Entry entry) {
+		entries.add(entry);
+	}
+
+	/**
+	 * @return Copy of all entries in the order they have been added.
+	 */
+	public synchronized List<Entry> getEntries() {
+		return List.copyOf(entries);
+	}
+
+	/**
+	 * @param status Status to count.
+	 * @return Number of files with the given status.
+	 */
+	public synchronized int getFileCount(Status status) {
+		return (int) entries.stream()
+				.filter(entry -> entry.status() == status)
+				.count();
+	}
+
+	/**
+	 * @return Total number of modified bookmarks.
+	 */
+	public synchronized int getBookmarkCount() {
+		return entries.stream()
+				.mapToInt(Entry::bookmarkCount)
+				.sum();
+	}
+
+}
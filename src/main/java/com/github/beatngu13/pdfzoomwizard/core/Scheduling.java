@@ -0,0 +1,20 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+/**
+ * Order in which {@link Wizard} dispatches the collected files to its workers.
+ *
+ * @author Daniel Kraus
+ */
+public enum Scheduling {
+
+	/**
+	 * Order in which the files are found by depth-first search.
+	 */
+	WALK_ORDER,
+	/**
+	 * Largest files first (longest processing time first), so that a large file found late does not become a long
+	 * single-threaded tail of the run. Files of equal size keep their walk order.
+	 */
+	LARGEST_FIRST
+
+}
@@ -0,0 +1,69 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * Deterministically assigns files to one of {@link #count} shards, so that several processes or hosts can work on
+ * the same directory tree without coordination. Files are assigned by a stable hash (CRC-32) of their path relative
+ * to the tree's root, hence shares mounted at different locations yield the same assignment.
+ *
+ * @param index 1-based index of this shard.
+ * @param count Total number of shards.
+ * @author Daniel Kraus
+ */
+public record Shard(int index, int count) {
+
+	public Shard {
+		if (count < 1) {
+			throw new IllegalArgumentException("Shard count must be positive.");
+		}
+		if (index < 1 || index > count) {
+			throw new IllegalArgumentException("Shard index must be between 1 and %d.".formatted(count));
+		}
+	}
+
+	/**
+	 * Parses a shard in the form <i>index/count</i>, e.g. <i>2/3</i>.
+	 *
+	 * @param value Shard to parse.
+	 * @return Parsed shard.
+	 * @throws IllegalArgumentException If the shard is invalid.
+	 */
+	public static Shard parse(String value) {
+		var separator = value.indexOf('/');
+		if (separator < 0) {
+			throw new IllegalArgumentException("Shard must be given as <index>/<count>.");
+		}
+		try {
+			var index = Integer.parseInt(value.substring(0, separator).trim());
+			var count = Integer.parseInt(value.substring(separator + 1).trim());
+			return new Shard(index, count);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Shard must be given as <index>/<count>.", e);
+		}
+	}
+
+	/**
+	 * @param relativePath Path of a file relative to the root of the processed tree.
+	 * @return <code>true</code> if the file is assigned to this shard, else <code>false</code>.
+	 */
+	public boolean contains(Path relativePath) {
+		return Math.floorMod(hash(relativePath), count) == index - 1;
+	}
+
+	private static long hash(Path relativePath) {
+		// Same separator on all platforms.
+		var normalized = relativePath.normalize().toString().replace('\\', '/');
+		var crc = new CRC32();
+		crc.update(normalized.getBytes(StandardCharsets.UTF_8));
+		return crc.getValue();
+	}
+
+	@Override
+	public String toString() {
+		return index + "/" + count;
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.pdfclown.bytes.Buffer;
+import org.pdfclown.files.SerializationModeEnum;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Applies {@link #zoom} to the bookmarks of in-memory PDFs, e.g. for services which get documents from object
+ * storage. Unlike {@link Wizard}, nothing is read from or written to the file system.
+ * <p>
+ * Instances are immutable and can be used concurrently: each call parses its own document.
+ *
+ * @author Daniel Kraus
+ */
+public final class StreamWizard {
+
+	/**
+	 * @see SerializationModeEnum
+	 */
+	private static final SerializationModeEnum SERIALIZATION_MODE = SerializationModeEnum.Incremental;
+
+	/**
+	 * Zoom to apply to all bookmarks.
+	 */
+	private final Zoom zoom;
+	/**
+	 * Applies {@link #zoom} to the bookmarks of each PDF.
+	 */
+	private final BookmarkModifier bookmarkModifier;
+
+	/**
+	 * Creates a new <code>StreamWizard</code> instance.
+	 *
+	 * @param zoom Sets {@link #zoom}.
+	 */
+	public StreamWizard(Zoom zoom) {
+		this.zoom = zoom;
+		this.bookmarkModifier = new BookmarkModifier(zoom);
+	}
+
+	/**
+	 * Reads a PDF from the given input stream and writes the modified PDF to the given output stream. As PDFs
+	 * require random access, the input is read completely into memory. Neither stream is closed.
+	 *
+	 * @param input  Stream to read the original PDF from.
+	 * @param output Stream to write the modified PDF to.
+	 * @return Number of modified bookmarks.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public int apply(InputStream input, OutputStream output) throws IOException {
+		return apply(input.readAllBytes(), output);
+	}
+
+	/**
+	 * Reads a PDF from the remaining bytes of the given buffer and writes the modified PDF to the given output
+	 * stream. The buffer's position is left untouched, and its content must not change during the call. Heap
+	 * buffers which are backed by an array of exactly the remaining bytes are used without copying.
+	 *
+	 * @param input  Buffer to read the original PDF from.
+	 * @param output Stream to write the modified PDF to.
+	 * @return Number of modified bookmarks.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public int apply(ByteBuffer input, OutputStream output) throws IOException {
+		return apply(toByteArray(input), output);
+	}
+
+	/**
+	 * @return {@link #zoom}.
+	 */
+	public Zoom getZoom() {
+		return zoom;
+	}
+
+	private int apply(byte[] input, OutputStream output) throws IOException {
+		// Not closed: File#close() expects a file-system path, and the buffer holds no resources.
+		var pdf = new org.pdfclown.files.File(new Buffer(input));
+		var bookmarkCount = bookmarkModifier.modifyBookmarks(pdf.getDocument().getBookmarks());
+		try {
+			pdf.save(new org.pdfclown.bytes.OutputStream(output), SERIALIZATION_MODE);
+		} catch (RuntimeException e) {
+			// PDF Clown wraps I/O errors of the underlying stream.
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw e;
+		}
+		output.flush();
+		return bookmarkCount;
+	}
+
+	private static byte[] toByteArray(ByteBuffer buffer) {
+		if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+				&& buffer.remaining() == buffer.array().length) {
+			return buffer.array();
+		}
+		var bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		return bytes;
+	}
+
+}
@@ -0,0 +1,187 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.pdfclown.documents.interaction.navigation.document.Destination;
+import org.pdfclown.files.SerializationModeEnum;
+import org.pdfclown.objects.PdfArray;
+import org.pdfclown.objects.PdfDirectObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modifies PDF files within the current process like {@link PdfFileModifier}, but writes one {@link Variant} per
+ * zoom from a single parse. The destinations are collected once, while the first variant is applied; for each further
+ * variant, they are restored to their original parameters and modified with that variant's zoom, so that each
+ * variant equals the result of a separate run. If the fast outline path is enabled (and links are left as they are),
+ * {@link OutlinePatcher} is tried first, which reads the outline once for all variants.
+ * <p>
+ * All variants are written to part files first and only replace their targets if the {@link CommitGuard} allows to
+ * commit. ZIP archives are streamed once per variant, see {@link ZipModifier}.
+ *
+ * @author Daniel Kraus
+ */
+final class VariantFileModifier implements FileModifier {
+
+	private static final Logger logger = LoggerFactory.getLogger(VariantFileModifier.class);
+
+	/**
+	 * @see SerializationModeEnum
+	 */
+	private static final SerializationModeEnum SERIALIZATION_MODE = SerializationModeEnum.Incremental;
+
+	/**
+	 * Zoom of a variant and where it is written.
+	 *
+	 * @param zoom         Zoom to apply to all destinations.
+	 * @param outputLayout Where the variant is written, each variant needs its own targets.
+	 */
+	record Variant(Zoom zoom, OutputLayout outputLayout) {
+	}
+
+	private final List<Variant> variants;
+	/**
+	 * Indicates whether the zoom is also applied to GoTo link annotations on pages, not only to bookmarks.
+	 */
+	private final boolean modifyLinks;
+	/**
+	 * Indicates whether {@link OutlinePatcher} is tried first, ignored if {@link #modifyLinks} is set.
+	 */
+	private final boolean fastOutline;
+	/**
+	 * Wall-clock time budget per file (for all variants), <code>null</code> for no limit.
+	 */
+	private final Duration timeout;
+
+	/**
+	 * Creates a new <code>VariantFileModifier</code> instance.
+	 *
+	 * @param variants    Variants to write, at least one.
+	 * @param modifyLinks Sets {@link #modifyLinks}.
+	 * @param fastOutline Sets {@link #fastOutline}.
+	 * @param timeout     Sets {@link #timeout}.
+	 */
+	VariantFileModifier(List<Variant> variants, boolean modifyLinks, boolean fastOutline, Duration timeout) {
+		if (variants.isEmpty()) {
+			throw new IllegalArgumentException("At least one variant must be given.");
+		}
+		this.variants = List.copyOf(variants);
+		this.modifyLinks = modifyLinks;
+		this.fastOutline = fastOutline;
+		this.timeout = timeout;
+	}
+
+	@Override
+	public int modify(Path pdf) throws Exception {
+		return PdfFileModifier.modifyWithin(timeout, pdf, this::modify);
+	}
+
+	private int modify(Path pdf, CommitGuard guard) throws IOException {
+		var targets = new ArrayList<Path>();
+		var parts = new ArrayList<Path>();
+		for (var variant : variants) {
+			var target = variant.outputLayout().createTarget(pdf);
+			targets.add(target);
+			parts.add(FileUtil.getPartFile(target));
+		}
+		try {
+			Integer count;
+			if (ZipModifier.isZip(pdf)) {
+				count = modifyZip(pdf, parts);
+			} else {
+				count = fastOutline && !modifyLinks ? patchPdf(pdf, parts) : null;
+				if (count == null) {
+					count = modifyPdf(pdf, parts);
+				}
+			}
+			if (!guard.commit()) {
+				throw new IOException("Modification of '%s' has been abandoned.".formatted(pdf));
+			}
+			for (int i = 0; i < variants.size(); i++) {
+				FileUtil.replace(parts.get(i), targets.get(i));
+			}
+			return count;
+		} finally {
+			for (var part : parts) {
+				Files.deleteIfExists(part);
+			}
+		}
+	}
+
+	/**
+	 * @return Number of modified bookmarks per variant, <code>null</code> if the PDF is not supported by
+	 * {@link OutlinePatcher}.
+	 */
+	private Integer patchPdf(Path pdf, List<Path> parts) {
+		var outputs = new LinkedHashMap<Zoom, Path>();
+		for (int i = 0; i < variants.size(); i++) {
+			outputs.put(variants.get(i).zoom(), parts.get(i));
+		}
+		try {
+			return OutlinePatcher.patch(pdf, outputs);
+		} catch (IOException | RuntimeException e) {
+			logger.debug("Falling back to PDF Clown for '{}': {}", pdf, e.toString());
+			return null;
+		}
+	}
+
+	/**
+	 * Parses the given PDF once and saves each variant.
+	 *
+	 * @return Number of modified bookmarks (and links) per variant.
+	 */
+	private int modifyPdf(Path pdf, List<Path> parts) throws IOException {
+		try (var file = new org.pdfclown.files.File(pdf.toAbsolutePath().toString())) {
+			var document = file.getDocument();
+			// Destinations may be shared, only the state before the first modification is kept.
+			var originals = new IdentityHashMap<PdfArray, List<PdfDirectObject>>();
+			var destinations = new ArrayList<Destination>();
+			var destinationModifier = new DestinationModifier(variants.get(0).zoom(), destination -> {
+				originals.computeIfAbsent(destination.getBaseDataObject(), array -> new ArrayList<>(array));
+				destinations.add(destination);
+			});
+			var count = new BookmarkModifier(destinationModifier).modifyBookmarks(document.getBookmarks());
+			if (modifyLinks) {
+				count += new LinkModifier(destinationModifier).modifyLinks(document.getPages());
+			}
+			file.save(parts.get(0).toFile(), SERIALIZATION_MODE);
+
+			for (int i = 1; i < variants.size(); i++) {
+				restore(originals);
+				var variantModifier = new DestinationModifier(variants.get(i).zoom());
+				destinations.forEach(variantModifier::modifyDestination);
+				file.save(parts.get(i).toFile(), SERIALIZATION_MODE);
+			}
+			return count;
+		}
+	}
+
+	private static void restore(Map<PdfArray, List<PdfDirectObject>> originals) {
+		originals.forEach((array, items) -> {
+			array.clear();
+			array.addAll(items);
+		});
+	}
+
+	/**
+	 * @return Number of modified bookmarks (and links) of all PDFs inside the archive per variant.
+	 */
+	private int modifyZip(Path zip, List<Path> parts) throws IOException {
+		var count = 0;
+		for (int i = 0; i < variants.size(); i++) {
+			var zoom = variants.get(i).zoom();
+			var zipModifier = new ZipModifier(new BookmarkModifier(zoom), modifyLinks ? new LinkModifier(zoom) : null);
+			count = zipModifier.modifyZip(zip, parts.get(i), parts.get(i).getParent());
+		}
+		return count;
+	}
+
+}
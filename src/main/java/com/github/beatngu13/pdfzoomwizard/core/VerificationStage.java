@@ -0,0 +1,138 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Verifies written PDFs using {@link PdfVerifier} on its own threads, so that verification overlaps with the
+ * modification of the next files. Before a file is modified, its target is backed up by {@link #backup(Path)}
+ * (a hard link if possible, hence cheap); outputs which fail verification are rolled back to that backup.
+ *
+ * @author Daniel Kraus
+ */
+final class VerificationStage implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(VerificationStage.class);
+
+	/**
+	 * Extension of backups of the targets.
+	 */
+	private static final String BACKUP_FILE_EXTENSION = ".orig";
+
+	private final PdfVerifier verifier;
+	/**
+	 * Where the modified PDFs are written.
+	 */
+	private final OutputLayout outputLayout;
+	private final ExecutorService executor;
+
+	/**
+	 * Creates a new <code>VerificationStage</code> instance.
+	 *
+	 * @param zoom          Zoom which all destinations must carry.
+	 * @param verifyLinks   Whether link destinations are verified as well.
+	 * @param outputLayout  Sets {@link #outputLayout}.
+	 * @param threadCount   Number of files which are verified in parallel.
+	 */
+	VerificationStage(Zoom zoom, boolean verifyLinks, OutputLayout outputLayout, int threadCount) {
+		this.verifier = new PdfVerifier(zoom, verifyLinks);
+		this.outputLayout = outputLayout;
+		this.executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+			var thread = new Thread(runnable, "verifier");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Backs up the target of the given PDF, if it exists.
+	 *
+	 * @param pdf PDF which is about to be modified.
+	 * @return Backup of the target, <code>null</code> if there is no target yet.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	Path backup(Path pdf) throws IOException {
+		var target = outputLayout.getTarget(pdf);
+		if (!Files.exists(target)) {
+			return null;
+		}
+		var backup = target.resolveSibling(target.getFileName() + BACKUP_FILE_EXTENSION);
+		FileUtil.replaceWithLinkOrCopy(target, backup, true);
+		return backup;
+	}
+
+	/**
+	 * Discards the given backup, e.g. because the modification failed and the target is untouched.
+	 *
+	 * @param backup Backup to discard, may be <code>null</code>.
+	 */
+	void discard(Path backup) {
+		if (backup == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(backup);
+		} catch (IOException e) {
+			logger.warn("Cannot delete backup '{}'.", backup, e);
+		}
+	}
+
+	/**
+	 * Asynchronously verifies the target of the given modified PDF. If it passes, the backup is discarded, else the
+	 * target is rolled back to the backup (or deleted if there is none).
+	 *
+	 * @param pdf    PDF which has been modified.
+	 * @param backup Backup from {@link #backup(Path)}.
+	 * @return <code>true</code> if the target passed verification, else <code>false</code>.
+	 */
+	CompletableFuture<Boolean> verify(Path pdf, Path backup) {
+		return CompletableFuture.supplyAsync(() -> {
+			var target = outputLayout.getTarget(pdf);
+			if (passes(target)) {
+				discard(backup);
+				return true;
+			}
+			rollBack(target, backup);
+			return false;
+		}, executor);
+	}
+
+	private boolean passes(Path target) {
+		try {
+			var unmodifiedCount = verifier.verify(target);
+			if (unmodifiedCount > 0) {
+				logger.error("{} destination(s) in '{}' don't carry the zoom.", unmodifiedCount, target);
+			}
+			return unmodifiedCount == 0;
+		} catch (Exception e) {
+			logger.error("Exception while verifying '{}'.", target, e);
+			return false;
+		}
+	}
+
+	private void rollBack(Path target, Path backup) {
+		try {
+			if (backup == null) {
+				Files.deleteIfExists(target);
+			} else {
+				FileUtil.replace(backup, target);
+			}
+			logger.warn("Rolled back '{}'.", target);
+		} catch (IOException e) {
+			logger.error("Exception while rolling back '{}'.", target, e);
+		}
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+}
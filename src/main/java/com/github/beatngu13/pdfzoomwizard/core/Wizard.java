@@ -1,13 +1,5 @@
 package com.github.beatngu13.pdfzoomwizard.core;
 
-import javafx.concurrent.Task;
-import org.pdfclown.documents.interaction.actions.GoToDestination;
-import org.pdfclown.documents.interaction.navigation.document.Bookmark;
-import org.pdfclown.documents.interaction.navigation.document.Bookmarks;
-import org.pdfclown.documents.interaction.navigation.document.Destination;
-import org.pdfclown.documents.interaction.navigation.document.LocalDestination;
-import org.pdfclown.files.SerializationModeEnum;
-import org.pdfclown.objects.PdfObjectWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,68 +8,147 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static com.github.beatngu13.pdfzoomwizard.core.PdfFileModifier.PDF_FILE_EXTENSION;
+
 /**
- * Applies {@link #zoom} to the bookmarks of a single PDF file or a whole
- * directory (subdirectories included). This implementation is based on the
+ * Applies {@link #zoom} (or several, see {@link #variants}) to the bookmarks
+ * of a single PDF file or a whole directory (subdirectories included). This implementation is based on the
  * <a href="http://www.stefanochizzolini.it/en/projects/clown/">PDF Clown</a>
  * library by Stefano Chizzolini.
+ * <p>
+ * The Wizard itself is free of JavaFX so it can also be run headless, see
+ * <code>WizardTask</code> for the UI counterpart.
  *
  * @author Daniel Kraus
  */
-public class Wizard extends Task<Void> {
+public class Wizard implements Callable<Void> {
 
 	private static final Logger logger = LoggerFactory.getLogger(Wizard.class);
 
 	/**
-	 * The {@link Task#updateMessage(String)} when {@link Task#running()}.
+	 * Directory or file to work with.
 	 */
-	public static final String PROCESSING_MESSAGE = "Processing";
+	private final File root;
 	/**
-	 * The {@link Task#updateMessage(String)} when {@link Task#succeeded()}.
+	 * <i>Filename&lt;infix&gt;.pdf</i> for copies, <code>null</code> if the
+	 * original document will be overwritten.
 	 */
-	public static final String SUCCEEDED_MESSAGE = "Succeeded";
+	private final String filenameInfix;
 	/**
-	 * The {@link Task#updateMessage(String)} when {@link Task#failed()}.
+	 * Zoom to apply to all bookmarks.
 	 */
-	public static final String FAILED_MESSAGE = "Failed";
-
+	private final Zoom zoom;
 	/**
-	 * File extension for PDFs.
+	 * Filename infix per zoom, starting with {@link #zoom} and {@link #filenameInfix}. If there are several, each
+	 * PDF is parsed once and written once per zoom, see {@link VariantFileModifier}.
 	 */
-	private static final String PDF_FILE_EXTENSION = ".pdf";
+	private final Map<Zoom, String> variants;
+
 	/**
-	 * @see SerializationModeEnum
+	 * Outcome of each processed file.
 	 */
-	private static final SerializationModeEnum SERIALIZATION_MODE = SerializationModeEnum.Incremental;
+	private final Report report = new Report();
 
 	/**
-	 * Directory or file to work with.
+	 * Shard of the files to work with, <code>null</code> to work with all files.
 	 */
-	private final File root;
+	private Shard shard;
 	/**
-	 * <i>Filename&lt;infix&gt;.pdf</i> for copies, <code>null</code> if the
-	 * original document will be overwritten.
+	 * Number of files which are modified in parallel.
 	 */
-	private final String filenameInfix;
+	private int workerCount = 1;
 	/**
-	 * Zoom to apply to all bookmarks.
+	 * Indicates whether the number of files which are modified in parallel is tuned at runtime, with
+	 * {@link #workerCount} as upper bound, see {@link ConcurrencyController}.
 	 */
-	private final Zoom zoom;
-
+	private boolean adaptiveConcurrency;
+	/**
+	 * Order in which files are dispatched to the workers.
+	 */
+	private Scheduling scheduling = Scheduling.LARGEST_FIRST;
+	/**
+	 * Indicates whether files are modified in child JVMs (see {@link WorkerPool}) instead of in-process.
+	 */
+	private boolean isolated;
 	/**
-	 * Total number of modified files.
+	 * Maximum heap size of each child JVM if {@link #isolated}, <code>null</code> for the JVM default.
 	 */
-	private int fileCountTotal;
+	private String workerMaxHeap;
 	/**
-	 * Total number of modified bookmarks.
+	 * Wall-clock time budget per file, <code>null</code> for no limit. Files which exceed it are left untouched.
+	 * Unless {@link #isolated}, their work is only abandoned and keeps running in the background, so it still holds
+	 * CPU and heap until it ends.
 	 */
-	private int bookmarkCountTotal;
+	private Duration timeout;
 	/**
-	 * Number of modified bookmarks within the current processed PDF file.
+	 * Indicates whether PDF files with identical content are only modified once.
 	 */
-	private int bookmarkCountCurrent;
+	private boolean deduplicate;
+	/**
+	 * Indicates whether {@link #zoom} is also applied to GoTo link annotations on pages, not only to bookmarks.
+	 */
+	private boolean modifyLinks;
+	/**
+	 * Indicates whether the PDFs inside ZIP archives are modified as well. Archives are rewritten, hence they are left
+	 * as they are by default.
+	 */
+	private boolean modifyZips;
+	/**
+	 * Indicates whether bookmarks are patched without PDF Clown's document model where possible, see
+	 * {@link OutlinePatcher}. Ignored if {@link #modifyLinks} is set.
+	 */
+	private boolean fastOutline;
+	/**
+	 * Indicates whether written files are re-opened and checked for {@link #zoom}, see {@link VerificationStage}.
+	 */
+	private boolean verify;
+	/**
+	 * Directory into which the modified files are written, mirroring the structure of {@link #root}. If
+	 * <code>null</code>, they are written next to the originals.
+	 */
+	private File outputRoot;
+	/**
+	 * Notified of each file's outcome as soon as it is known, on the thread which processed the file.
+	 */
+	private Consumer<Report.Entry> entryListener = entry -> {
+	};
+	/**
+	 * Where the modified files are written, derived from {@link #filenameInfix} and {@link #outputRoot} once the
+	 * Wizard is called.
+	 */
+	private OutputLayout outputLayout;
+	/**
+	 * Where the modified files of each of {@link #variants} are written, starting with {@link #outputLayout}.
+	 */
+	private List<OutputLayout> outputLayouts;
+	/**
+	 * Per layout of {@link #outputLayouts}, the targets which have been written with the current settings,
+	 * <code>null</code> if unknown. Only set if there is an {@link #outputRoot}.
+	 */
+	private List<OutputStamp> outputStamps;
+	/**
+	 * Limits the files which are modified in parallel if {@link #adaptiveConcurrency} is set, created once the Wizard
+	 * is called.
+	 */
+	private ConcurrencyController concurrencyController;
 
 	/**
 	 * Creates a new <code>Wizard</code> instance.
@@ -87,173 +158,641 @@ public class Wizard extends Task<Void> {
 	 * @param zoom          Sets {@link #zoom}.
 	 */
 	public Wizard(File root, String filenameInfix, Zoom zoom) {
+		this(root, Collections.singletonMap(zoom, filenameInfix));
+	}
+
+	/**
+	 * Creates a new <code>Wizard</code> instance which writes several variants of each PDF. Isolated workers,
+	 * verification and deduplication are not supported for more than one variant.
+	 *
+	 * @param root     Sets {@link #root}.
+	 * @param variants Sets {@link #variants}, each variant must have its own filename infix.
+	 */
+	public Wizard(File root, Map<Zoom, String> variants) {
+		if (variants.isEmpty()) {
+			throw new IllegalArgumentException("At least one zoom must be given.");
+		}
+		if (variants.size() > 1 && (variants.containsValue(null)
+				|| new HashSet<>(variants.values()).size() < variants.size())) {
+			throw new IllegalArgumentException("Each variant must have its own filename infix.");
+		}
 		this.root = root;
-		this.filenameInfix = filenameInfix;
-		this.zoom = zoom;
+		this.variants = Collections.unmodifiableMap(new LinkedHashMap<>(variants));
+		var first = this.variants.entrySet().iterator().next();
+		this.zoom = first.getKey();
+		this.filenameInfix = first.getValue();
 	}
 
 	@Override
-	protected Void call() {
+	public Void call() {
+		if (variants.size() > 1 && (isolated || verify || deduplicate)) {
+			throw new IllegalStateException(
+					"Variants cannot be combined with isolated workers, verification or deduplication.");
+		}
 		logger.info("Start working on '{}'.", root.getAbsolutePath());
-		logger.info("Bookmark(s) will be set to zoom '{}'.", zoom);
-		modifyFiles(root);
-		logger.info("Modified {} bookmark(s) in {} file(s).", bookmarkCountTotal, fileCountTotal);
+		if (timeout != null && !isolated) {
+			logger.warn("Files which exceed the timeout are abandoned, but keep running until they end. "
+					+ "Use isolated workers to stop them.");
+		}
+		if (variants.size() > 1) {
+			logger.info("Bookmark(s) will be set to zoom(s) {}, one copy each.", variants.keySet());
+		} else {
+			logger.info("Bookmark(s) will be set to zoom '{}'.", zoom);
+		}
+		if (modifyLinks) {
+			logger.info("Link(s) will be set to the same zoom(s) as well.");
+		} else if (fastOutline) {
+			logger.info("Bookmark(s) will be patched without PDF Clown's document model where possible.");
+		}
+		if (shard != null) {
+			logger.info("Working on shard {} of the file(s).", shard);
+		}
+		var base = getBase(root);
+		if (outputRoot != null) {
+			logger.info("Output will be written to '{}'.", outputRoot.getAbsolutePath());
+		}
+		outputLayouts = variants.values().stream()
+				.map(infix -> outputRoot == null
+						? OutputLayout.nextToOriginals(infix)
+						: new OutputLayout(infix, base, outputRoot.toPath()))
+				.toList();
+		outputLayout = outputLayouts.get(0);
+		if (outputRoot != null) {
+			var zooms = List.copyOf(variants.keySet());
+			outputStamps = IntStream.range(0, outputLayouts.size())
+					.mapToObj(i -> openOutputStamp(outputLayouts.get(i), zooms.get(i)))
+					.toList();
+		}
+		if (adaptiveConcurrency) {
+			logger.info("Tuning worker count between 1 and {}.", workerCount);
+			concurrencyController = new ConcurrencyController(workerCount);
+		}
+		// Resources which are null are skipped.
+		try (var verification = verify ? new VerificationStage(zoom, modifyLinks, outputLayout, workerCount) : null) {
+			if (isolated) {
+				logger.info("Using {} worker process(es).", workerCount);
+				try (var workerPool = new WorkerPool(workerCount, workerMaxHeap, zoom, modifyLinks, fastOutline,
+						outputLayout, timeout)) {
+					modifyFiles(root, workerPool, verification);
+				}
+			} else if (variants.size() > 1) {
+				modifyFiles(root, new VariantFileModifier(getVariants(), modifyLinks, fastOutline, timeout),
+						verification);
+			} else {
+				modifyFiles(root, new PdfFileModifier(zoom, modifyLinks, fastOutline, outputLayout, timeout),
+						verification);
+			}
+		}
+		logger.info("Modified {} bookmark(s) in {} file(s).", report.getBookmarkCount(),
+				report.getFileCount(Report.Status.MODIFIED));
+		if (outputRoot != null) {
+			logger.info("Skipped {} up-to-date file(s).", report.getFileCount(Report.Status.UP_TO_DATE));
+		}
+		if (deduplicate) {
+			logger.info("Reused results for {} duplicate file(s).", report.getFileCount(Report.Status.DUPLICATE));
+		}
+		if (verify) {
+			logger.info("Rolled back {} file(s) which failed verification.",
+					report.getFileCount(Report.Status.VERIFICATION_FAILED));
+		}
+		if (adaptiveConcurrency) {
+			logger.info("Finished with {} worker(s) after {} adjustment(s).", concurrencyController.getLimit(),
+					concurrencyController.getDecisions().size());
+		}
 		return null;
 	}
 
 	/**
-	 * Modifies each PDF file which is found by depth-first search using {@link #modifyFile(File)}.
+	 * @return {@link #report}.
+	 */
+	public Report getReport() {
+		return report;
+	}
+
+	/**
+	 * @return Changes of the worker count if {@link #adaptiveConcurrency} is set, else an empty list.
+	 */
+	public List<ConcurrencyController.Decision> getConcurrencyDecisions() {
+		return concurrencyController == null ? List.of() : concurrencyController.getDecisions();
+	}
+
+	/**
+	 * @param shard Sets {@link #shard}.
+	 */
+	public void setShard(Shard shard) {
+		this.shard = shard;
+	}
+
+	/**
+	 * @param workerCount Sets {@link #workerCount}.
+	 */
+	public void setWorkerCount(int workerCount) {
+		if (workerCount < 1) {
+			throw new IllegalArgumentException("Worker count must be positive.");
+		}
+		this.workerCount = workerCount;
+	}
+
+	/**
+	 * @param adaptiveConcurrency Sets {@link #adaptiveConcurrency}.
+	 */
+	public void setAdaptiveConcurrency(boolean adaptiveConcurrency) {
+		this.adaptiveConcurrency = adaptiveConcurrency;
+	}
+
+	/**
+	 * @param scheduling Sets {@link #scheduling}.
+	 */
+	public void setScheduling(Scheduling scheduling) {
+		this.scheduling = scheduling;
+	}
+
+	/**
+	 * @param isolated Sets {@link #isolated}.
+	 */
+	public void setIsolated(boolean isolated) {
+		this.isolated = isolated;
+	}
+
+	/**
+	 * @param workerMaxHeap Sets {@link #workerMaxHeap}.
+	 */
+	public void setWorkerMaxHeap(String workerMaxHeap) {
+		this.workerMaxHeap = workerMaxHeap;
+	}
+
+	/**
+	 * @param timeout Sets {@link #timeout}.
+	 */
+	public void setTimeout(Duration timeout) {
+		if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+			throw new IllegalArgumentException("Timeout must be positive.");
+		}
+		this.timeout = timeout;
+	}
+
+	/**
+	 * @param deduplicate Sets {@link #deduplicate}.
+	 */
+	public void setDeduplicate(boolean deduplicate) {
+		this.deduplicate = deduplicate;
+	}
+
+	/**
+	 * @param modifyLinks Sets {@link #modifyLinks}.
+	 */
+	public void setModifyLinks(boolean modifyLinks) {
+		this.modifyLinks = modifyLinks;
+	}
+
+	/**
+	 * @param fastOutline Sets {@link #fastOutline}.
+	 */
+	public void setFastOutline(boolean fastOutline) {
+		this.fastOutline = fastOutline;
+	}
+
+	/**
+	 * @param modifyZips Sets {@link #modifyZips}.
+	 */
+	public void setModifyZips(boolean modifyZips) {
+		this.modifyZips = modifyZips;
+	}
+
+	/**
+	 * @param verify Sets {@link #verify}.
+	 */
+	public void setVerify(boolean verify) {
+		this.verify = verify;
+	}
+
+	/**
+	 * @param outputRoot Sets {@link #outputRoot}.
+	 */
+	public void setOutputRoot(File outputRoot) {
+		this.outputRoot = outputRoot;
+	}
+
+	/**
+	 * @param entryListener Sets {@link #entryListener}.
+	 */
+	public void setEntryListener(Consumer<Report.Entry> entryListener) {
+		this.entryListener = entryListener;
+	}
+
+	/**
+	 * Modifies each PDF file (within {@link #shard}) which is found by depth-first search using
+	 * {@link #modifyFile(Path, String, FileModifier, VerificationStage)}. The files are collected upfront, so that
+	 * copies written meanwhile are not picked up, and modified by {@link #workerCount} workers (as far as
+	 * {@link #concurrencyController} permits) in the order given by {@link #scheduling}. If {@link #deduplicate} is
+	 * set, each distinct content is only modified once, see {@link #groupByContent(List)}.
 	 *
-	 * @param file Directory or file to be modified.
+	 * @param file         Directory or file to be modified.
+	 * @param fileModifier Modifies each PDF file.
+	 * @param verification Verifies each modified PDF file, <code>null</code> to skip verification.
 	 */
-	private void modifyFiles(File file) {
+	private void modifyFiles(File file, FileModifier fileModifier, VerificationStage verification) {
+		var base = getBase(file);
+		List<Path> files;
 		try (Stream<Path> tree = Files.walk(file.toPath())) {
-			tree.map(Path::toFile).forEach(this::modifyFile);
+			files = tree.filter(Files::isRegularFile)
+					.filter(path -> !isCopy(path))
+					.filter(path -> !outputLayout.isOutput(path))
+					.filter(path -> shard == null || shard.contains(base.relativize(path)))
+					.toList();
 		} catch (IOException e) {
 			throw new UncheckedIOException("Exception while walking file tree.", e);
 		}
+
+		var groups = deduplicate ? groupByContent(files) : files.stream().map(List::of).toList();
+		if (scheduling == Scheduling.LARGEST_FIRST) {
+			groups = largestFirst(groups);
+		}
+		var results = runAll(groups.stream()
+				.<Callable<CompletableFuture<Void>>>map(group -> () -> {
+					var primary = group.get(0);
+					// Duplicates have to wait for the verified result.
+					return modifyFileWithinLimit(primary, toReportPath(base, primary), fileModifier, verification)
+							.thenAccept(entry -> group.stream()
+									.skip(1)
+									.forEach(duplicate -> reuseResult(primary, entry, duplicate,
+											toReportPath(base, duplicate))));
+				})
+				.toList());
+		results.forEach(CompletableFuture::join);
 	}
 
 	/**
-	 * Modifies the given file using {@link #modifyBookmarks(Bookmarks)} if it is a PDF, otherwise does nothing.
-	 *
-	 * @param file File to be modified.
+	 * Modifies the given file like {@link #modifyFile(Path, String, FileModifier, VerificationStage)}, within a slot
+	 * of {@link #concurrencyController} if there is one.
 	 */
-	private void modifyFile(File file) {
-		var filename = file.getName();
+	private CompletableFuture<Report.Entry> modifyFileWithinLimit(Path path, String relativePath,
+																  FileModifier fileModifier,
+																  VerificationStage verification)
+			throws InterruptedException {
+		if (concurrencyController == null) {
+			return modifyFile(path, relativePath, fileModifier, verification);
+		}
+		// Before the file is possibly overwritten.
+		var size = sizeOf(path);
+		concurrencyController.acquire();
+		var start = System.nanoTime();
+		try {
+			return modifyFile(path, relativePath, fileModifier, verification);
+		} finally {
+			concurrencyController.release(size, System.nanoTime() - start);
+		}
+	}
 
-		if (!filename.endsWith(PDF_FILE_EXTENSION)) {
-			logger.warn("Skipping non-PDF file '{}'.", filename);
-			return;
+	private static long sizeOf(Path path) {
+		try {
+			return Files.size(path);
+		} catch (IOException e) {
+			logger.debug("Cannot determine size of '{}'.", path, e);
+			return 0;
 		}
+	}
 
-		logger.info("Processing PDF file '{}'.", filename);
+	/**
+	 * Groups PDF files with identical content. Only files of equal size are hashed, using {@link #workerCount}
+	 * workers. Files which cannot be hashed are kept on their own.
+	 *
+	 * @param files Files to group.
+	 * @return Groups of files with identical content, in the order of their first file.
+	 */
+	private List<List<Path>> groupByContent(List<Path> files) {
+		var bySize = new HashMap<Long, Integer>();
+		var sizes = new HashMap<Path, Long>();
+		for (var path : files) {
+			try {
+				var size = Files.size(path);
+				sizes.put(path, size);
+				bySize.merge(size, 1, Integer::sum);
+			} catch (IOException e) {
+				logger.debug("Cannot determine size of '{}'.", path, e);
+			}
+		}
+		var hashes = runAll(files.stream()
+				.<Callable<String>>map(path -> () -> {
+					var size = sizes.get(path);
+					if (size == null || bySize.get(size) == 1 || !isSupported(path)) {
+						return null;
+					}
+					try {
+						return size + "-" + FileUtil.hash(path);
+					} catch (IOException e) {
+						logger.debug("Cannot hash '{}'.", path, e);
+						return null;
+					}
+				})
+				.toList());
 
-		try (var pdf = new org.pdfclown.files.File(file.getAbsolutePath())) {
-			bookmarkCountCurrent = 0;
-			var document = pdf.getDocument();
-			modifyBookmarks(document.getBookmarks());
-			savePdf(pdf);
-			fileCountTotal++;
-			logger.info("Modified {} bookmark(s) in '{}'.", bookmarkCountCurrent, filename);
-		} catch (Exception e) {
-			logger.error("Exception while processing file '{}'.", file.getAbsolutePath(), e);
+		var groups = new LinkedHashMap<Object, List<Path>>();
+		for (int i = 0; i < files.size(); i++) {
+			var path = files.get(i);
+			var hash = hashes.get(i);
+			groups.computeIfAbsent(hash != null ? hash : path, key -> new ArrayList<>()).add(path);
 		}
+		logger.info("Found {} distinct PDF content(s) in {} file(s).", groups.size(), files.size());
+		return List.copyOf(groups.values());
+	}
+
+	/**
+	 * Sorts the given groups by the size of their first file, largest first. The sort is stable, so groups of equal
+	 * size keep their order.
+	 *
+	 * @param groups Groups to sort.
+	 * @return Sorted groups.
+	 */
+	private static List<List<Path>> largestFirst(List<List<Path>> groups) {
+		var sizes = new HashMap<Path, Long>();
+		groups.forEach(group -> sizes.put(group.get(0), sizeOf(group.get(0))));
+		return groups.stream()
+				.sorted(Comparator.comparing((List<Path> group) -> sizes.get(group.get(0))).reversed())
+				.toList();
 	}
 
 	/**
-	 * Modifies each bookmark which is found by depth-first search using {@link #modifyBookmark(Bookmark)}.
-	 * <p>
-	 * Visible for testing.
+	 * Runs the given tasks using {@link #workerCount} workers.
 	 *
-	 * @param bookmarks Bookmarks to be modified.
-	 */
-	void modifyBookmarks(Bookmarks bookmarks) {
-		Bookmark previous = null;
-		for (Bookmark bookmark : bookmarks) {
-			// Bookmarks#iterator() might be endless.
-			if (bookmark.equals(previous)) {
-				break;
+	 * @param tasks Tasks to run.
+	 * @param <T>   Type of the results.
+	 * @return Results of the tasks in the same order.
+	 */
+	private <T> List<T> runAll(List<Callable<T>> tasks) {
+		if (workerCount == 1) {
+			var results = new ArrayList<T>();
+			for (var task : tasks) {
+				results.add(callUnchecked(task));
 			}
-			Bookmarks children = bookmark.getBookmarks();
-			// Size might be positive (bookmark open) or negative (bookmark closed).
-			if (children.size() != 0) {
-				modifyBookmarks(children);
+			return results;
+		}
+		var executor = Executors.newFixedThreadPool(workerCount);
+		try {
+			var futures = tasks.stream().map(executor::submit).toList();
+			var results = new ArrayList<T>();
+			for (var future : futures) {
+				results.add(future.get());
 			}
-			modifyBookmark(bookmark);
-			previous = bookmark;
+			return results;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while modifying files.", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Exception while modifying files.", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static <T> T callUnchecked(Callable<T> task) {
+		try {
+			return task.call();
+		} catch (Exception e) {
+			throw new IllegalStateException("Exception while modifying files.", e);
 		}
 	}
 
+	private List<VariantFileModifier.Variant> getVariants() {
+		var zooms = List.copyOf(variants.keySet());
+		return IntStream.range(0, zooms.size())
+				.mapToObj(i -> new VariantFileModifier.Variant(zooms.get(i), outputLayouts.get(i)))
+				.toList();
+	}
+
+	private static Path getBase(File file) {
+		return file.isDirectory() ? file.toPath() : file.toPath().toAbsolutePath().getParent();
+	}
+
+	private static String toReportPath(Path base, Path path) {
+		return base.relativize(path).toString().replace(File.separatorChar, '/');
+	}
+
 	/**
-	 * Modifies the given bookmark using {@link #modifyDestination(Destination)}.
+	 * @param path File to check.
+	 * @return <code>true</code> if the file is a copy written by a Wizard with the same filename infix (of any of
+	 * {@link #variants}), else <code>false</code>.
+	 */
+	private boolean isCopy(Path path) {
+		var filename = path.getFileName().toString();
+		var copy = variants.values().stream()
+				.anyMatch(infix -> infix != null && (filename.endsWith(infix + PDF_FILE_EXTENSION)
+						|| filename.endsWith(infix + ZipModifier.ZIP_FILE_EXTENSION)));
+		if (copy) {
+			logger.debug("Skipping copy '{}'.", path);
+		}
+		return copy;
+	}
+
+	/**
+	 * @param path File to check.
+	 * @return <code>true</code> if the file is a PDF or a ZIP archive (whose PDFs are modified, see
+	 * {@link #modifyZips}), else <code>false</code>.
+	 */
+	private boolean isSupported(Path path) {
+		return path.getFileName().toString().endsWith(PDF_FILE_EXTENSION) || modifyZips && ZipModifier.isZip(path);
+	}
+
+	/**
+	 * @param path Supported file to check.
+	 * @return <code>true</code> if the file is a ZIP archive without PDF entries, else <code>false</code>.
+	 */
+	private static boolean isZipWithoutPdf(Path path) {
+		if (!ZipModifier.isZip(path)) {
+			return false;
+		}
+		try {
+			return !ZipModifier.containsPdf(path);
+		} catch (IOException e) {
+			// Left to the modification, which reports the archive as failed.
+			logger.debug("Cannot list entries of '{}'.", path, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Modifies the given file using the given {@link FileModifier} if it is a PDF or a ZIP archive, otherwise does
+	 * nothing. If
+	 * verification is enabled, the target is backed up beforehand and verified asynchronously afterwards. Either way,
+	 * the outcome is added to {@link #report}.
 	 *
-	 * @param bookmark Bookmark to be modified.
+	 * @param path         File to be modified.
+	 * @param relativePath Path of the file relative to {@link #root} for {@link #report}.
+	 * @param fileModifier Modifies the file.
+	 * @param verification Verifies the modified file, <code>null</code> to skip verification.
+	 * @return Outcome of the file, completed once verified.
 	 */
-	private void modifyBookmark(Bookmark bookmark) {
-		// Bookmark#getTarget() might throw an exception.
-		var title = BookmarkUtil.getTitle(bookmark);
+	private CompletableFuture<Report.Entry> modifyFile(Path path, String relativePath, FileModifier fileModifier,
+													   VerificationStage verification) {
+		var filename = path.getFileName().toString();
+
+		if (!isSupported(path)) {
+			logger.warn("Skipping non-PDF file '{}'.", filename);
+			return CompletableFuture.completedFuture(addEntry(relativePath, Report.Status.SKIPPED, 0, 0));
+		}
+
+		if (isZipWithoutPdf(path)) {
+			logger.warn("Skipping ZIP archive without PDF files '{}'.", filename);
+			return CompletableFuture.completedFuture(addEntry(relativePath, Report.Status.SKIPPED, 0, 0));
+		}
+
+		if (outputRoot != null && isUpToDate(path)) {
+			logger.info("Skipping up-to-date file '{}'.", filename);
+			return CompletableFuture.completedFuture(addEntry(relativePath, Report.Status.UP_TO_DATE, 0, 0));
+		}
+
+		logger.info("Processing {} file '{}'.", ZipModifier.isZip(path) ? "ZIP" : "PDF", filename);
+
+		var start = System.nanoTime();
+		Path backup = null;
+		Report.Status failure;
 		try {
-			var target = bookmark.getTarget();
-			if (target == null) {
-				logger.warn("Bookmark '{}' has no target.", title);
-				return;
+			if (verification != null) {
+				backup = verification.backup(path);
 			}
-
-			var destination = getDestination(target);
-			if (destination == null) {
-				logger.warn("Bookmark '{}' has no destination.", title);
-				return;
+			var bookmarkCount = fileModifier.modify(path);
+			var millis = millisSince(start);
+			if (verification == null) {
+				return CompletableFuture.completedFuture(modified(path, relativePath, bookmarkCount, millis));
 			}
-
-			modifyDestination(destination);
-			logger.debug("Modified bookmark '{}'.", title);
+			return verification.verify(path, backup).thenApply(passed -> passed
+					? modified(path, relativePath, bookmarkCount, millis)
+					: addEntry(relativePath, Report.Status.VERIFICATION_FAILED, 0, millis));
+		} catch (TimeoutException e) {
+			logger.error("Timeout while processing file '{}': {}", path.toAbsolutePath(), e.getMessage());
+			failure = Report.Status.TIMED_OUT;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.error("Interrupted while processing file '{}'.", path.toAbsolutePath());
+			failure = Report.Status.FAILED;
 		} catch (Exception e) {
-			logger.error("Exception while processing bookmark '{}'.", title, e);
+			logger.error("Exception while processing file '{}'.", path.toAbsolutePath(), e);
+			failure = Report.Status.FAILED;
+		}
+		// Target is untouched.
+		if (verification != null) {
+			verification.discard(backup);
 		}
+		return CompletableFuture.completedFuture(addEntry(relativePath, failure, 0, millisSince(start)));
+	}
+
+	private Report.Entry modified(Path path, String relativePath, int bookmarkCount, long millis) {
+		logger.info("Modified {} bookmark(s) in '{}'.", bookmarkCount, path.getFileName());
+		recordOutputs(path);
+		return addEntry(relativePath, Report.Status.MODIFIED, bookmarkCount, millis);
 	}
 
 	/**
-	 * Gets a bookmark's target destination.
+	 * Writes the result of the given primary file for a duplicate of it, without parsing the duplicate. Copies are
+	 * hard-linked to the primary's copy if possible, overwritten originals are copied so that they stay independent
+	 * files. If the primary has not been modified (and its target is not up to date either), the duplicate gets the
+	 * same status.
 	 *
-	 * @param target {@link Bookmark#getTarget} to get the destination from.
-	 * @return Target destination if applicable, else <code>null</code>.
+	 * @param primary      File which has been modified.
+	 * @param primaryEntry Outcome of the primary.
+	 * @param duplicate    File with the same content as the primary.
+	 * @param relativePath Path of the duplicate relative to {@link #root} for {@link #report}.
 	 */
-	private Destination getDestination(PdfObjectWrapper<?> target) {
-		if (target instanceof GoToDestination<?> goToDestination) {
-			return goToDestination.getDestination();
+	private void reuseResult(Path primary, Report.Entry primaryEntry, Path duplicate, String relativePath) {
+		var primaryStatus = primaryEntry.status();
+		if (primaryStatus != Report.Status.MODIFIED && primaryStatus != Report.Status.UP_TO_DATE) {
+			logger.warn("Skipping duplicate '{}' of unmodified file '{}'.", duplicate.getFileName(),
+					primaryEntry.path());
+			addEntry(relativePath, primaryEntry.status(), 0, 0);
+			return;
 		}
-		if (target instanceof LocalDestination localDestination) {
-			return localDestination;
+
+		if (outputRoot != null && isUpToDate(duplicate)) {
+			addEntry(relativePath, Report.Status.UP_TO_DATE, 0, 0);
+			return;
 		}
-		return null;
+
+		var start = System.nanoTime();
+		try {
+			FileUtil.replaceWithLinkOrCopy(outputLayout.getTarget(primary), outputLayout.createTarget(duplicate),
+					outputLayout.isCopy());
+		} catch (IOException e) {
+			logger.error("Exception while writing duplicate '{}'.", duplicate.toAbsolutePath(), e);
+			addEntry(relativePath, Report.Status.FAILED, 0, millisSince(start));
+			return;
+		}
+		logger.info("Reused result of '{}' for duplicate '{}'.", primaryEntry.path(), duplicate.getFileName());
+		recordOutputs(duplicate);
+		addEntry(relativePath, Report.Status.DUPLICATE, primaryEntry.bookmarkCount(), millisSince(start));
 	}
 
 	/**
-	 * Modifies the given destination by applying {@link #zoom}.
+	 * Opens the stamp of the given layout with the settings which affect its targets, see {@link OutputStamp}.
 	 *
-	 * @param destination Destination to modify.
+	 * @param layout Layout with an output root.
+	 * @param zoom   Zoom with which the targets of the layout are written.
+	 * @return Stamp of the layout, <code>null</code> if it cannot be written.
 	 */
-	private void modifyDestination(Destination destination) {
-		destination.setMode(zoom.getMode());
-		destination.setZoom(zoom.getZoom());
-		bookmarkCountTotal++;
-		bookmarkCountCurrent++;
+	private OutputStamp openOutputStamp(OutputLayout layout, Zoom zoom) {
+		var settings = "zoom=%s links=%s".formatted(zoom.name(), modifyLinks);
+		try {
+			return OutputStamp.open(layout, settings);
+		} catch (IOException e) {
+			logger.warn("Cannot record settings in '{}', no file will be skipped as up to date.",
+					OutputStamp.getFile(layout), e);
+			return null;
+		}
 	}
 
 	/**
-	 * Saves the given PDF. If {@link #filenameInfix} is not null, the PDF will be copied, otherwise overwritten.
-	 *
-	 * @param pdf PDF to be saved.
-	 * @throws IOException If an I/O error occurs.
-	 */
-	private void savePdf(org.pdfclown.files.File pdf) throws IOException {
-		var copyPdf = filenameInfix != null;
-		if (copyPdf) {
-			var path = pdf.getPath().replace(PDF_FILE_EXTENSION, filenameInfix + PDF_FILE_EXTENSION);
-			var copy = new File(path);
-			pdf.save(copy, SERIALIZATION_MODE);
-		} else {
-			pdf.save(SERIALIZATION_MODE);
+	 * @param pdf PDF to check.
+	 * @return <code>true</code> if the targets of the PDF (of all {@link #variants}) exist, are not older than the
+	 * PDF and have been written with the current settings, else <code>false</code>.
+	 */
+	private boolean isUpToDate(Path pdf) {
+		try {
+			var modified = Files.getLastModifiedTime(pdf);
+			for (int i = 0; i < outputLayouts.size(); i++) {
+				var target = outputLayouts.get(i).getTarget(pdf);
+				var stamp = outputStamps.get(i);
+				if (stamp == null || !stamp.contains(target) || !Files.exists(target)
+						|| Files.getLastModifiedTime(target).compareTo(modified) < 0) {
+					return false;
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			logger.debug("Cannot compare '{}' with its target.", pdf, e);
+			return false;
 		}
 	}
 
-	@Override
-	protected void running() {
-		super.running();
-		updateMessage(PROCESSING_MESSAGE);
+	/**
+	 * Records the targets of the given file as written with the current settings if there is an {@link #outputRoot}.
+	 *
+	 * @param path File whose targets have been written.
+	 */
+	private void recordOutputs(Path path) {
+		if (outputStamps == null) {
+			return;
+		}
+		for (int i = 0; i < outputLayouts.size(); i++) {
+			var stamp = outputStamps.get(i);
+			if (stamp == null) {
+				continue;
+			}
+			try {
+				stamp.add(outputLayouts.get(i).getTarget(path));
+			} catch (IOException e) {
+				logger.warn("Cannot record target of '{}', it will be written again.", path, e);
+			}
+		}
 	}
 
-	@Override
-	protected void succeeded() {
-		super.succeeded();
-		updateMessage(SUCCEEDED_MESSAGE);
+	private Report.Entry addEntry(String relativePath, Report.Status status, int bookmarkCount, long millis) {
+		var entry = new Report.Entry(relativePath, status, bookmarkCount, millis);
+		report.add(entry);
+		entryListener.accept(entry);
+		return entry;
 	}
 
-	@Override
-	protected void failed() {
-		super.failed();
-		updateMessage(FAILED_MESSAGE);
+	private static long millisSince(long startNanos) {
+		return (System.nanoTime() - startNanos) / 1_000_000;
 	}
 
 }
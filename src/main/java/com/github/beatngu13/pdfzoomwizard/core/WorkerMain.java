@@ -0,0 +1,74 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Entry point of a {@link WorkerPool} child process. Reads one PDF path per line from standard input, modifies it
+ * using {@link PdfFileModifier} and answers with one line on standard output: <i>OK&lt;tab&gt;bookmark count</i>
+ * or <i>FAILED&lt;tab&gt;message</i>. Logging goes to standard error. Exits when standard input is closed.
+ * <p>
+ * Arguments: zoom (see {@link Zoom#name()}), whether to modify links (<i>true</i> or <i>false</i>) and the
+ * components of the {@link OutputLayout}, an empty argument for <code>null</code> (see {@link #toArgument(Object)}).
+ * Time budgets are enforced by the parent, which kills the worker and deletes its part file. The parent does not send
+ * paths which contain a line break.
+ *
+ * @author Daniel Kraus
+ */
+public final class WorkerMain {
+
+	static final String OK = "OK";
+	static final String FAILED = "FAILED";
+	static final String SEPARATOR = "\t";
+
+	private WorkerMain() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		// Keep standard output for replies only, before any logger grabs it.
+		var replies = new PrintStream(new FileOutputStream(FileDescriptor.out), true, StandardCharsets.UTF_8);
+		System.setOut(System.err);
+
+		var zoom = Zoom.valueOf(args[0]);
+		var modifyLinks = Boolean.parseBoolean(args[1]);
+		var fastOutline = Boolean.parseBoolean(args[2]);
+		var filenameInfix = fromArgument(args[3]);
+		var sourceRoot = fromArgument(args[4]);
+		var outputRoot = fromArgument(args[5]);
+		var outputLayout = new OutputLayout(filenameInfix, sourceRoot == null ? null : Path.of(sourceRoot),
+				outputRoot == null ? null : Path.of(outputRoot));
+		var fileModifier = new PdfFileModifier(zoom, modifyLinks, fastOutline, outputLayout, null);
+
+		var requests = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		String request;
+		while ((request = requests.readLine()) != null) {
+			try {
+				var bookmarkCount = fileModifier.modify(Path.of(request));
+				replies.println(OK + SEPARATOR + bookmarkCount);
+			} catch (Exception | StackOverflowError e) {
+				// Message must fit in one line.
+				var message = String.valueOf(e).replaceAll("\\R", " ");
+				replies.println(FAILED + SEPARATOR + message);
+			}
+		}
+	}
+
+	/**
+	 * @param value Value to pass to a worker, may be <code>null</code>.
+	 * @return Argument which represents the value.
+	 */
+	static String toArgument(Object value) {
+		// Infixes must not be empty, neither can paths.
+		return value == null ? "" : value.toString();
+	}
+
+	private static String fromArgument(String argument) {
+		return argument.isEmpty() ? null : argument;
+	}
+
+}
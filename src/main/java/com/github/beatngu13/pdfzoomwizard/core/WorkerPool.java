@@ -0,0 +1,253 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Modifies PDF files in a pool of reusable child JVMs (see {@link WorkerMain}), so that documents which exhaust the
+ * heap or crash PDF Clown only take down their worker, not the whole run. Dead workers are replaced by new ones on
+ * their next use. Workers which exceed the time budget of a file are killed by a watchdog. The part file a killed
+ * worker may leave behind is deleted. Paths which contain a line break cannot be sent to workers and are rejected.
+ *
+ * @author Daniel Kraus
+ */
+final class WorkerPool implements FileModifier, AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(WorkerPool.class);
+
+	/**
+	 * Time to wait for workers to exit after their standard input has been closed.
+	 */
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+	/**
+	 * Command to start a worker.
+	 */
+	private final List<String> command;
+	/**
+	 * Workers which are currently not in use.
+	 */
+	private final BlockingQueue<Worker> idleWorkers = new LinkedBlockingQueue<>();
+	/**
+	 * All workers of this pool.
+	 */
+	private final List<Worker> workers = new ArrayList<>();
+	/**
+	 * Where the workers write the modified PDFs.
+	 */
+	private final OutputLayout outputLayout;
+	/**
+	 * Wall-clock time budget per file, <code>null</code> for no limit.
+	 */
+	private final Duration timeout;
+	/**
+	 * Kills workers which exceed {@link #timeout}.
+	 */
+	private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		var thread = new Thread(runnable, "worker-watchdog");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Creates a new <code>WorkerPool</code> instance. Workers are started lazily.
+	 *
+	 * @param size          Number of workers.
+	 * @param maxHeap       Maximum heap size of each worker (e.g. <i>512m</i>), <code>null</code> for the JVM default.
+	 * @param zoom          Zoom to apply to all bookmarks.
+	 * @param modifyLinks   Whether to apply the zoom to links as well.
+	 * @param fastOutline   Whether to try {@link OutlinePatcher} first, ignored if links are modified.
+	 * @param outputLayout  Where the modified PDFs are written.
+	 * @param timeout       Sets {@link #timeout}.
+	 */
+	WorkerPool(int size, String maxHeap, Zoom zoom, boolean modifyLinks, boolean fastOutline, OutputLayout outputLayout,
+			   Duration timeout) {
+		this.outputLayout = outputLayout;
+		this.timeout = timeout;
+		var javaHome = System.getProperty("java.home");
+		if (javaHome == null) {
+			throw new IllegalStateException("Worker processes require a JVM.");
+		}
+		command = new ArrayList<>();
+		command.add(Paths.get(javaHome, "bin", "java").toString());
+		if (maxHeap != null) {
+			command.add("-Xmx" + maxHeap);
+		}
+		// Die instead of limping on, the pool replaces the worker.
+		command.add("-XX:+ExitOnOutOfMemoryError");
+		command.add("-Dlogback.configurationFile=logback-worker.xml");
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(WorkerMain.class.getName());
+		command.add(zoom.name());
+		command.add(String.valueOf(modifyLinks));
+		command.add(String.valueOf(fastOutline));
+		command.add(WorkerMain.toArgument(outputLayout.filenameInfix()));
+		command.add(WorkerMain.toArgument(outputLayout.sourceRoot()));
+		command.add(WorkerMain.toArgument(outputLayout.outputRoot()));
+
+		for (int i = 0; i < size; i++) {
+			var worker = new Worker(i + 1);
+			workers.add(worker);
+			idleWorkers.add(worker);
+		}
+	}
+
+	@Override
+	public int modify(Path pdf) throws IOException, InterruptedException, TimeoutException {
+		// Requests are line-delimited.
+		var path = pdf.toAbsolutePath().toString();
+		if (path.contains("\n") || path.contains("\r")) {
+			throw new IOException("Path contains a line break: '%s'.".formatted(path.replaceAll("\\R", " ")));
+		}
+		var worker = idleWorkers.take();
+		try {
+			return worker.modify(pdf);
+		} finally {
+			idleWorkers.add(worker);
+		}
+	}
+
+	@Override
+	public void close() {
+		watchdog.shutdownNow();
+		workers.forEach(Worker::stop);
+	}
+
+	/**
+	 * A single child JVM.
+	 */
+	private final class Worker {
+
+		private final int id;
+
+		private Process process;
+		private BufferedWriter requests;
+		private BufferedReader replies;
+
+		private Worker(int id) {
+			this.id = id;
+		}
+
+		int modify(Path pdf) throws IOException, TimeoutException {
+			if (process == null || !process.isAlive()) {
+				start();
+			}
+
+			// Starts after the worker, the budget is per file.
+			var timedOut = new AtomicBoolean();
+			var running = process;
+			var kill = timeout == null ? null : watchdog.schedule(() -> {
+				timedOut.set(true);
+				running.destroyForcibly();
+			}, timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+			String reply;
+			try {
+				requests.write(pdf.toAbsolutePath().toString());
+				requests.newLine();
+				requests.flush();
+				reply = replies.readLine();
+			} catch (IOException e) {
+				reply = null;
+			} finally {
+				if (kill != null) {
+					kill.cancel(false);
+				}
+			}
+
+			if (reply == null) {
+				var exitCode = kill();
+				deletePartFile(pdf);
+				if (timedOut.get()) {
+					throw new TimeoutException("Worker %d exceeded time budget of %d ms.".formatted(id,
+							timeout.toMillis()));
+				}
+				throw new IOException("Worker %d died with exit code %d.".formatted(id, exitCode));
+			}
+			var columns = reply.split(WorkerMain.SEPARATOR, 2);
+			if (columns[0].equals(WorkerMain.OK)) {
+				return Integer.parseInt(columns[1]);
+			}
+			throw new IOException("Worker %d failed: %s".formatted(id, columns.length > 1 ? columns[1] : reply));
+		}
+
+		private void start() throws IOException {
+			logger.debug("Starting worker {}.", id);
+			process = new ProcessBuilder(command)
+					.redirectError(ProcessBuilder.Redirect.INHERIT)
+					.start();
+			requests = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+			replies = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+		}
+
+		/**
+		 * Deletes the part file the killed worker may have been writing.
+		 *
+		 * @param pdf PDF the worker has been modifying.
+		 */
+		private void deletePartFile(Path pdf) {
+			var part = FileUtil.getPartFile(outputLayout.getTarget(pdf));
+			try {
+				Files.deleteIfExists(part);
+			} catch (IOException e) {
+				logger.warn("Could not delete part file '{}'.", part, e);
+			}
+		}
+
+		/**
+		 * @return Exit code of the killed process.
+		 */
+		private int kill() {
+			process.destroyForcibly();
+			try {
+				return process.waitFor();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return -1;
+			} finally {
+				logger.warn("Worker {} died, it will be restarted on its next use.", id);
+			}
+		}
+
+		private void stop() {
+			if (process == null) {
+				return;
+			}
+			try {
+				// Worker exits on end of input.
+				requests.close();
+				if (!process.waitFor(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+					process.destroyForcibly();
+				}
+			} catch (IOException e) {
+				process.destroyForcibly();
+			} catch (InterruptedException e) {
+				process.destroyForcibly();
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+}
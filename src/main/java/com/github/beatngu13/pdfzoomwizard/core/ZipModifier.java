@@ -0,0 +1,250 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.pdfclown.bytes.Buffer;
+import org.pdfclown.bytes.FileInputStream;
+import org.pdfclown.bytes.IInputStream;
+import org.pdfclown.files.SerializationModeEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static com.github.beatngu13.pdfzoomwizard.core.PdfFileModifier.PDF_FILE_EXTENSION;
+
+/**
+ * Applies a zoom to the PDFs inside a ZIP archive by streaming the archive entry by entry into a new archive, without
+ * extracting it. Other entries are copied through: stored entries stay stored, compressed ones are recompressed since
+ * <code>java.util.zip</code> cannot copy compressed data as is. Modified PDFs are always compressed. The archive
+ * comment is copied as well.
+ * <p>
+ * PDF Clown requires random access, so each PDF entry is buffered on its own: in memory up to
+ * {@link #MAX_BUFFERED_ENTRY_SIZE}, larger entries in a temporary file which is deleted right after. Hence, memory per
+ * entry is bounded. Instances hold no state besides their modifiers and can be shared between threads.
+ *
+ * @author Daniel Kraus
+ */
+final class ZipModifier {
+
+	private static final Logger logger = LoggerFactory.getLogger(ZipModifier.class);
+
+	/**
+	 * File extension for ZIP archives.
+	 */
+	static final String ZIP_FILE_EXTENSION = ".zip";
+	/**
+	 * Maximum size of a PDF entry which is buffered in memory.
+	 */
+	static final int MAX_BUFFERED_ENTRY_SIZE = 64 * 1024 * 1024;
+	/**
+	 * @see SerializationModeEnum
+	 */
+	private static final SerializationModeEnum SERIALIZATION_MODE = SerializationModeEnum.Incremental;
+	private static final String SPILL_FILE_PREFIX = "pdfzoomwizard-";
+
+	private final BookmarkModifier bookmarkModifier;
+	/**
+	 * <code>null</code> if links are left as they are.
+	 */
+	private final LinkModifier linkModifier;
+
+	/**
+	 * Creates a new <code>ZipModifier</code> instance.
+	 *
+	 * @param bookmarkModifier Applies the zoom to the bookmarks of each PDF entry.
+	 * @param linkModifier     Applies the zoom to the links of each PDF entry, <code>null</code> to skip links.
+	 */
+	ZipModifier(BookmarkModifier bookmarkModifier, LinkModifier linkModifier) {
+		this.bookmarkModifier = bookmarkModifier;
+		this.linkModifier = linkModifier;
+	}
+
+	/**
+	 * @param path File to check.
+	 * @return <code>true</code> if the file is a ZIP archive (by name), else <code>false</code>.
+	 */
+	static boolean isZip(Path path) {
+		return path.getFileName().toString().endsWith(ZIP_FILE_EXTENSION);
+	}
+
+	/**
+	 * @param entry Entry to check.
+	 * @return <code>true</code> if the entry is a PDF (by name), else <code>false</code>.
+	 */
+	static boolean isPdf(ZipEntry entry) {
+		return !entry.isDirectory() && entry.getName().endsWith(PDF_FILE_EXTENSION);
+	}
+
+	/**
+	 * @param zip ZIP archive to check.
+	 * @return <code>true</code> if the archive contains at least one PDF entry, else <code>false</code>.
+	 * @throws IOException If the archive cannot be read.
+	 */
+	static boolean containsPdf(Path zip) throws IOException {
+		// Only reads the central directory.
+		try (var zipFile = new ZipFile(zip.toFile())) {
+			return zipFile.stream().anyMatch(ZipModifier::isPdf);
+		}
+	}
+
+	/**
+	 * Writes the given ZIP archive with modified PDF entries to the given file, see
+	 * {@link #modifyZip(InputStream, OutputStream, String, Path)}.
+	 *
+	 * @param zip            Original archive.
+	 * @param output         File to write, which is replaced if it exists.
+	 * @param spillDirectory Directory for temporary files of large entries.
+	 * @return Number of modified bookmarks (and links) of all PDF entries.
+	 * @throws IOException If an I/O error occurs or a PDF entry cannot be modified.
+	 */
+	int modifyZip(Path zip, Path output, Path spillDirectory) throws IOException {
+		String comment;
+		// ZipInputStream does not expose the archive comment.
+		try (var zipFile = new ZipFile(zip.toFile())) {
+			comment = zipFile.getComment();
+		}
+		try (var input = new BufferedInputStream(Files.newInputStream(zip));
+			 var outputStream = new BufferedOutputStream(Files.newOutputStream(output))) {
+			return modifyZip(input, outputStream, comment, spillDirectory);
+		}
+	}
+
+	/**
+	 * Reads a ZIP archive from the given input stream and writes it with modified PDF entries to the given output
+	 * stream. Neither stream is closed.
+	 *
+	 * @param input          Stream to read the original archive from.
+	 * @param output         Stream to write the modified archive to.
+	 * @param comment        Archive comment to write, <code>null</code> for none.
+	 * @param spillDirectory Directory for temporary files of large entries.
+	 * @return Number of modified bookmarks (and links) of all PDF entries.
+	 * @throws IOException If an I/O error occurs or a PDF entry cannot be modified.
+	 */
+	int modifyZip(InputStream input, OutputStream output, String comment, Path spillDirectory) throws IOException {
+		var count = 0;
+		var zipInput = new ZipInputStream(input);
+		var zipOutput = new ZipOutputStream(output);
+		zipOutput.setComment(comment);
+		ZipEntry entry;
+		while ((entry = zipInput.getNextEntry()) != null) {
+			if (isPdf(entry)) {
+				count += modifyEntry(entry, zipInput, zipOutput, spillDirectory);
+			} else {
+				zipOutput.putNextEntry(copyOf(entry));
+				zipInput.transferTo(zipOutput);
+			}
+			zipOutput.closeEntry();
+		}
+		zipOutput.finish();
+		return count;
+	}
+
+	private int modifyEntry(ZipEntry entry, ZipInputStream zipInput, ZipOutputStream zipOutput, Path spillDirectory)
+			throws IOException {
+		try (var content = read(zipInput, spillDirectory)) {
+			// Not closed: File#close() expects a file-system path, the content is closed instead.
+			var file = new org.pdfclown.files.File(content.stream());
+			var document = file.getDocument();
+			var count = bookmarkModifier.modifyBookmarks(document.getBookmarks());
+			if (linkModifier != null) {
+				count += linkModifier.modifyLinks(document.getPages());
+			}
+
+			var modified = new ZipEntry(entry.getName());
+			modified.setTime(entry.getTime());
+			modified.setComment(entry.getComment());
+			modified.setMethod(ZipEntry.DEFLATED);
+			zipOutput.putNextEntry(modified);
+			try {
+				file.save(new org.pdfclown.bytes.OutputStream(zipOutput), SERIALIZATION_MODE);
+			} catch (RuntimeException e) {
+				// PDF Clown wraps I/O errors of the underlying stream.
+				if (e.getCause() instanceof IOException ioException) {
+					throw ioException;
+				}
+				throw e;
+			}
+			logger.debug("Modified {} destination(s) in entry '{}'.", count, entry.getName());
+			return count;
+		} catch (RuntimeException e) {
+			throw new IOException("Cannot modify entry '%s'.".formatted(entry.getName()), e);
+		}
+	}
+
+	private static ZipEntry copyOf(ZipEntry entry) {
+		var copy = new ZipEntry(entry);
+		if (copy.getMethod() != ZipEntry.STORED) {
+			// Depends on the compression level, hence is recomputed.
+			copy.setCompressedSize(-1);
+		}
+		return copy;
+	}
+
+	/**
+	 * Reads the current entry of the given stream into a random-access buffer, see {@link #MAX_BUFFERED_ENTRY_SIZE}.
+	 *
+	 * @param zipInput       Stream positioned at the entry to read.
+	 * @param spillDirectory Directory for the temporary file if the entry is too large.
+	 * @return Content of the entry, which must be closed.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	static EntryContent read(ZipInputStream zipInput, Path spillDirectory) throws IOException {
+		return read(zipInput, spillDirectory, MAX_BUFFERED_ENTRY_SIZE);
+	}
+
+	/**
+	 * Visible for testing.
+	 */
+	static EntryContent read(ZipInputStream zipInput, Path spillDirectory, int maxBufferedSize) throws IOException {
+		var head = zipInput.readNBytes(maxBufferedSize);
+		if (head.length < maxBufferedSize) {
+			return new EntryContent(new Buffer(head), null);
+		}
+		var spillFile = Files.createTempFile(spillDirectory, SPILL_FILE_PREFIX, ".tmp");
+		try {
+			try (var spill = Files.newOutputStream(spillFile)) {
+				spill.write(head);
+				// Release the buffer before reading the rest.
+				head = null;
+				zipInput.transferTo(spill);
+			}
+			return new EntryContent(new FileInputStream(new RandomAccessFile(spillFile.toFile(), "r")), spillFile);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(spillFile);
+			throw e;
+		}
+	}
+
+	/**
+	 * Random-access content of a PDF entry.
+	 *
+	 * @param stream    Content to be read by PDF Clown.
+	 * @param spillFile Temporary file which holds the content, <code>null</code> if held in memory.
+	 */
+	record EntryContent(IInputStream stream, Path spillFile) implements Closeable {
+
+		@Override
+		public void close() throws IOException {
+			try {
+				stream.close();
+			} finally {
+				if (spillFile != null) {
+					Files.deleteIfExists(spillFile);
+				}
+			}
+		}
+
+	}
+
+}
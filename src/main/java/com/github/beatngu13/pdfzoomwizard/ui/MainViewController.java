@@ -1,8 +1,12 @@
 package com.github.beatngu13.pdfzoomwizard.ui;
 
+import com.github.beatngu13.pdfzoomwizard.core.Report;
 import com.github.beatngu13.pdfzoomwizard.core.Wizard;
 import com.github.beatngu13.pdfzoomwizard.core.Zoom;
+import javafx.animation.AnimationTimer;
 import javafx.animation.FadeTransition;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.concurrent.Worker;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -11,6 +15,8 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.text.Text;
@@ -23,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 /**
  * Provides a JavaFX-based Wizard UI.
@@ -34,7 +41,7 @@ public class MainViewController {
 	private static final Logger logger = LoggerFactory.getLogger(MainViewController.class);
 
 	/**
-	 * <code>ExecutorService</code> for running {@link Wizard} tasks.
+	 * <code>ExecutorService</code> for running {@link WizardTask}s.
 	 */
 	private final ExecutorService executorService = Executors.newSingleThreadExecutor();
 	/**
@@ -50,6 +57,14 @@ public class MainViewController {
 	 * Sets {@link #root}.
 	 */
 	private final FileChooser fileChooser = new FileChooser();
+	/**
+	 * Outcomes of the running {@link Wizard}, see {@link #fileTableView}.
+	 */
+	private final UpdateBuffer<Report.Entry> entryBuffer = new UpdateBuffer<>();
+	/**
+	 * Moves {@link #entryBuffer} to {@link #fileTableView} once per pulse while a {@link WizardTask} is running.
+	 */
+	private AnimationTimer entryFlusher;
 	/**
 	 * Root directory or file to work with.
 	 */
@@ -105,15 +120,41 @@ public class MainViewController {
 	 */
 	@FXML
 	private Button runButton;
+	/**
+	 * Lists the outcome of each processed file. Only visible rows are rendered, so it copes with many files.
+	 */
+	@FXML
+	private TableView<Report.Entry> fileTableView;
+	@FXML
+	private TableColumn<Report.Entry, String> pathColumn;
+	@FXML
+	private TableColumn<Report.Entry, Report.Status> statusColumn;
+	@FXML
+	private TableColumn<Report.Entry, Integer> bookmarkCountColumn;
+	@FXML
+	private TableColumn<Report.Entry, Long> millisColumn;
 
 	/**
 	 * Initializes FXML and bindings.
 	 */
 	public void initialize() {
 		runButton.disableProperty().bind(rootTextField.textProperty().isEmpty().or(
-				infoText.textProperty().isEqualTo(Wizard.PROCESSING_MESSAGE)));
+				infoText.textProperty().isEqualTo(WizardTask.PROCESSING_MESSAGE)));
 		copyTextField.disableProperty().bind(copyCheckBox.selectedProperty().not());
 
+		bindColumn(pathColumn, Report.Entry::path);
+		bindColumn(statusColumn, Report.Entry::status);
+		bindColumn(bookmarkCountColumn, Report.Entry::bookmarkCount);
+		bindColumn(millisColumn, Report.Entry::millis);
+		entryFlusher = new AnimationTimer() {
+
+			@Override
+			public void handle(long now) {
+				flushEntries();
+			}
+
+		};
+
 		directoryChooser.setTitle("Choose a directory");
 		fileChooser.setTitle("Choose a file");
 
@@ -163,6 +204,20 @@ public class MainViewController {
 		});
 	}
 
+	private static <T> void bindColumn(TableColumn<Report.Entry, T> column, Function<Report.Entry, T> getter) {
+		column.setCellValueFactory(features -> new ReadOnlyObjectWrapper<>(getter.apply(features.getValue())));
+	}
+
+	/**
+	 * Adds all entries from {@link #entryBuffer} to {@link #fileTableView} in a single change.
+	 */
+	private void flushEntries() {
+		var entries = entryBuffer.drain();
+		if (!entries.isEmpty()) {
+			fileTableView.getItems().addAll(entries);
+		}
+	}
+
 	/**
 	 * Validates the given UI input.
 	 *
@@ -226,9 +281,21 @@ public class MainViewController {
 	private void run() {
 		var filenameInfix = copyCheckBox.isSelected() ? copyTextField.getText() : null;
 		var wizard = new Wizard(root, filenameInfix, zoomChoiceBox.getValue());
+		wizard.setEntryListener(entryBuffer::add);
+		var task = new WizardTask(wizard);
 		// Can't be bound because infoText is also set within here.
-		wizard.messageProperty().addListener((observable, oldValue, newValue) -> infoText.setText(newValue));
-		executorService.submit(wizard);
+		task.messageProperty().addListener((observable, oldValue, newValue) -> infoText.setText(newValue));
+		task.stateProperty().addListener((observable, oldValue, newValue) -> {
+			if (newValue == Worker.State.SUCCEEDED || newValue == Worker.State.FAILED
+					|| newValue == Worker.State.CANCELLED) {
+				// An active timer forces a pulse per frame, so only run it along with the task.
+				entryFlusher.stop();
+				flushEntries();
+			}
+		});
+		fileTableView.getItems().clear();
+		entryFlusher.start();
+		executorService.submit(task);
 	}
 
 }
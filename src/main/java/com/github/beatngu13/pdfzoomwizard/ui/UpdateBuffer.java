@@ -0,0 +1,45 @@
+package com.github.beatngu13.pdfzoomwizard.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects updates from worker threads so that the JavaFX application thread can apply them in batches, e.g. once
+ * per pulse, instead of being flooded with one {@link javafx.application.Platform#runLater(Runnable)} per update.
+ *
+ * @param <T> Type of the updates.
+ * @author Daniel Kraus
+ */
+final class UpdateBuffer<T> {
+
+	/**
+	 * Updates which have not been drained yet.
+	 */
+	private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Adds the given update, may be called from any thread.
+	 *
+	 * @param update Update to add.
+	 */
+	void add(T update) {
+		pending.add(update);
+	}
+
+	/**
+	 * Removes all pending updates.
+	 *
+	 * @return Pending updates in the order in which they have been added, empty if there are none.
+	 */
+	List<T> drain() {
+		var updates = new ArrayList<T>();
+		T update;
+		while ((update = pending.poll()) != null) {
+			updates.add(update);
+		}
+		return updates;
+	}
+
+}
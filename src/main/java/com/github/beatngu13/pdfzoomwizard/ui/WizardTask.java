@@ -0,0 +1,63 @@
+package com.github.beatngu13.pdfzoomwizard.ui;
+
+import com.github.beatngu13.pdfzoomwizard.core.Wizard;
+import javafx.concurrent.Task;
+
+/**
+ * Runs a {@link Wizard} as a JavaFX {@link Task}.
+ *
+ * @author Daniel Kraus
+ */
+class WizardTask extends Task<Void> {
+
+	/**
+	 * The {@link Task#updateMessage(String)} when {@link Task#running()}.
+	 */
+	static final String PROCESSING_MESSAGE = "Processing";
+	/**
+	 * The {@link Task#updateMessage(String)} when {@link Task#succeeded()}.
+	 */
+	static final String SUCCEEDED_MESSAGE = "Succeeded";
+	/**
+	 * The {@link Task#updateMessage(String)} when {@link Task#failed()}.
+	 */
+	static final String FAILED_MESSAGE = "Failed";
+
+	/**
+	 * Wizard to run.
+	 */
+	private final Wizard wizard;
+
+	/**
+	 * Creates a new <code>WizardTask</code> instance.
+	 *
+	 * @param wizard Sets {@link #wizard}.
+	 */
+	WizardTask(Wizard wizard) {
+		this.wizard = wizard;
+	}
+
+	@Override
+	protected Void call() {
+		return wizard.call();
+	}
+
+	@Override
+	protected void running() {
+		super.running();
+		updateMessage(PROCESSING_MESSAGE);
+	}
+
+	@Override
+	protected void succeeded() {
+		super.succeeded();
+		updateMessage(SUCCEEDED_MESSAGE);
+	}
+
+	@Override
+	protected void failed() {
+		super.failed();
+		updateMessage(FAILED_MESSAGE);
+	}
+
+}
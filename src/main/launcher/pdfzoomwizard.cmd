@@ -0,0 +1,30 @@
+@echo off
+rem Launches the PDF Zoom Wizard from the shaded JAR next to this script: the UI
+rem without arguments, the headless launcher with arguments. Uses the JAR's
+rem class-data sharing archive (pdfzoomwizard-<version>.jsa) if present, else
+rem creates it on exit, so that it is trained on the installed JAR path.
+
+setlocal
+set "jar=%~dp0${project.build.finalName}.jar"
+set "archive=%~dp0${project.build.finalName}.jsa"
+
+set "java_cmd=java"
+if defined JAVA_HOME set "java_cmd=%JAVA_HOME%\bin\java"
+
+set "main_class=com.github.beatngu13.pdfzoomwizard.LauncherWrapper"
+if not "%~1"=="" set "main_class=com.github.beatngu13.pdfzoomwizard.HeadlessLauncher"
+
+rem The archive only matches the JAR path it was created with, otherwise the JVM
+rem falls back to the default archive (-Xshare:auto) and logs a warning. Delete
+rem the archive to create it again on the next run.
+if exist "%archive%" (
+	"%java_cmd%" -XX:SharedArchiveFile="%archive%" -Xshare:auto -Xlog:cds=warning:stderr -Xlog:cds+dynamic=warning:stderr -cp "%jar%" %main_class% %*
+	exit /b %errorlevel%
+)
+
+rem Written to a temporary file first, concurrent runs must not see it half done.
+set "part=%archive%.%random%"
+"%java_cmd%" -XX:ArchiveClassesAtExit="%part%" -Xlog:cds=off -Xlog:cds=error:stderr -cp "%jar%" %main_class% %*
+set "status=%errorlevel%"
+if exist "%part%" move /y "%part%" "%archive%" >nul
+exit /b %status%
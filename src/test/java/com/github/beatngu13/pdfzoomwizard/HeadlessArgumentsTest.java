@@ -0,0 +1,201 @@
+package com.github.beatngu13.pdfzoomwizard;
+
+import com.github.beatngu13.pdfzoomwizard.core.Scheduling;
+import com.github.beatngu13.pdfzoomwizard.core.Shard;
+import com.github.beatngu13.pdfzoomwizard.core.Zoom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class HeadlessArgumentsTest {
+
+	@Test
+	void defaults_should_be_used_if_only_root_is_given() {
+		var arguments = HeadlessArguments.parse("foo.pdf");
+
+		assertThat(arguments).isEqualTo(new HeadlessArguments(new File("foo.pdf"), null, Zoom.INHERIT_ZOOM));
+	}
+
+	@Test
+	void options_should_be_parsed() {
+		var arguments = HeadlessArguments.parse("--zoom", "fit_page", "--infix", "-copy", "foo");
+
+		assertThat(arguments).isEqualTo(new HeadlessArguments(new File("foo"), "-copy", Zoom.FIT_PAGE));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"FIT_WIDTH", "fit_width", "fit-width"})
+	void zoom_should_be_parsed_leniently(String zoom) {
+		assertThat(HeadlessArguments.parse("--zoom", zoom, "foo").zoom()).isEqualTo(Zoom.FIT_WIDTH);
+	}
+
+	@Test
+	void shard_and_report_should_be_parsed() {
+		var arguments = HeadlessArguments.parse("--shard", "2/3", "--report", "report.tsv", "foo");
+
+		assertThat(arguments.shard()).isEqualTo(new Shard(2, 3));
+		assertThat(arguments.report()).isEqualTo(Path.of("report.tsv"));
+	}
+
+	@Test
+	void reports_to_merge_should_be_parsed() {
+		var arguments = HeadlessArguments.parse("--report", "all.tsv", "--merge", "1.tsv", "--merge", "2.tsv");
+
+		assertThat(arguments.root()).isNull();
+		assertThat(arguments.mergeReports()).containsExactly(Path.of("1.tsv"), Path.of("2.tsv"));
+	}
+
+	@Test
+	void merging_reports_without_report_should_be_rejected() {
+		assertThatThrownBy(() -> HeadlessArguments.parse("--merge", "1.tsv"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Report must be given when merging reports.");
+	}
+
+	@Test
+	void worker_options_should_be_parsed() {
+		var arguments = HeadlessArguments.parse("--workers", "4", "--isolate", "--worker-heap", "512m", "foo");
+
+		assertThat(arguments.workerCount()).isEqualTo(4);
+		assertThat(arguments.isolated()).isTrue();
+		assertThat(arguments.workerMaxHeap()).isEqualTo("512m");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"0", "-1", "bar"})
+	void invalid_worker_count_should_be_rejected(String workerCount) {
+		assertThatThrownBy(() -> HeadlessArguments.parse("--workers", workerCount, "foo"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void timeout_should_be_parsed() {
+		assertThat(HeadlessArguments.parse("--timeout", "90", "foo").timeout()).isEqualTo(Duration.ofSeconds(90));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"0", "1.5", "bar"})
+	void invalid_timeout_should_be_rejected(String timeout) {
+		assertThatThrownBy(() -> HeadlessArguments.parse("--timeout", timeout, "foo"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void links_should_be_parsed() {
+		assertThat(HeadlessArguments.parse("foo").modifyLinks()).isFalse();
+		assertThat(HeadlessArguments.parse("--links", "foo").modifyLinks()).isTrue();
+	}
+
+	@Test
+	void fast_outline_should_be_parsed() {
+		assertThat(HeadlessArguments.parse("foo").fastOutline()).isFalse();
+		assertThat(HeadlessArguments.parse("--fast-outline", "foo").fastOutline()).isTrue();
+	}
+
+	@Test
+	void zip_should_be_parsed() {
+		assertThat(HeadlessArguments.parse("foo").modifyZips()).isFalse();
+		assertThat(HeadlessArguments.parse("--zip", "foo").modifyZips()).isTrue();
+	}
+
+	@Test
+	void adaptive_should_be_parsed() {
+		assertThat(HeadlessArguments.parse("foo").adaptive()).isFalse();
+		assertThat(HeadlessArguments.parse("--adaptive", "--workers", "4", "foo").adaptive()).isTrue();
+	}
+
+	@Test
+	void schedule_should_be_parsed() {
+		assertThat(HeadlessArguments.parse("foo").scheduling()).isEqualTo(Scheduling.LARGEST_FIRST);
+		assertThat(HeadlessArguments.parse("--schedule", "walk", "foo").scheduling()).isEqualTo(Scheduling.WALK_ORDER);
+		assertThatThrownBy(() -> HeadlessArguments.parse("--schedule", "random", "foo"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void variants_should_be_parsed() {
+		assertThat(HeadlessArguments.parse("foo").variants()).isEmpty();
+
+		var arguments = HeadlessArguments.parse("--variant", "fit-width=-width", "--variant", "fit-page=-page", "foo");
+
+		assertThat(arguments.variants()).containsExactly(entry(Zoom.FIT_WIDTH, "-width"), entry(Zoom.FIT_PAGE, "-page"));
+		assertThat(arguments.zoom()).isEqualTo(Zoom.FIT_WIDTH);
+		assertThat(arguments.filenameInfix()).isEqualTo("-width");
+	}
+
+	@Test
+	void invalid_variants_should_be_rejected() {
+		assertThatThrownBy(() -> HeadlessArguments.parse("--variant", "fit-page", "foo"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> HeadlessArguments.parse("--variant", "fit-page=", "foo"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> HeadlessArguments.parse("--variant", "fit-page=-a", "--variant", "fit-width=-a", "foo"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> HeadlessArguments.parse("--variant", "fit-page=-a", "--zoom", "fit-width", "foo"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> HeadlessArguments.parse("--variant", "fit-page=-a", "--variant", "fit-width=-b",
+				"--verify", "foo")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void dedup_should_be_parsed() {
+		assertThat(HeadlessArguments.parse("foo").deduplicate()).isFalse();
+		assertThat(HeadlessArguments.parse("--dedup", "foo").deduplicate()).isTrue();
+	}
+
+	@Test
+	void verify_should_be_parsed() {
+		assertThat(HeadlessArguments.parse("foo").verify()).isFalse();
+		assertThat(HeadlessArguments.parse("--verify", "foo").verify()).isTrue();
+	}
+
+	@Test
+	void output_root_should_be_parsed() {
+		assertThat(HeadlessArguments.parse("foo").outputRoot()).isNull();
+		assertThat(HeadlessArguments.parse("--output-root", "bar", "foo").outputRoot()).isEqualTo(new File("bar"));
+	}
+
+	@Test
+	void worker_heap_without_isolation_should_be_rejected() {
+		assertThatThrownBy(() -> HeadlessArguments.parse("--worker-heap", "512m", "foo"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Worker heap requires --isolate.");
+	}
+
+	@Test
+	void missing_root_should_be_rejected() {
+		assertThatThrownBy(() -> HeadlessArguments.parse("--zoom", "fit_page"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("File or directory must be given.");
+	}
+
+	@Test
+	void missing_option_value_should_be_rejected() {
+		assertThatThrownBy(() -> HeadlessArguments.parse("foo", "--infix"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Option '--infix' requires a value.");
+	}
+
+	@Test
+	void unknown_zoom_should_be_rejected() {
+		assertThatThrownBy(() -> HeadlessArguments.parse("--zoom", "bar", "foo"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Unknown zoom 'bar'.");
+	}
+
+	@Test
+	void unknown_option_should_be_rejected() {
+		assertThatThrownBy(() -> HeadlessArguments.parse("--bar", "foo"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Unknown option '--bar'.");
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.github.beatngu13.pdfzoomwizard;
+
+import com.github.beatngu13.pdfzoomwizard.core.Report;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardingIT {
+
+	static final int SHARD_COUNT = 3;
+	static final int PDF_COUNT = 12;
+
+	@Test
+	void shards_should_process_disjoint_and_complete_subsets(@TempDir Path temp) throws Exception {
+		var root = Files.createDirectory(temp.resolve("root"));
+		var samplePdf = Paths.get("src/test/resources/sample.pdf");
+		var pdfs = new ArrayList<String>();
+		for (int i = 0; i < PDF_COUNT; i++) {
+			var pdf = "dir" + i % 4 + "/file" + i + ".pdf";
+			Files.createDirectories(root.resolve(pdf).getParent());
+			Files.copy(samplePdf, root.resolve(pdf));
+			pdfs.add(pdf);
+		}
+
+		var processes = new ArrayList<Process>();
+		var reports = new ArrayList<Path>();
+		for (int index = 1; index <= SHARD_COUNT; index++) {
+			var report = temp.resolve("report-" + index + ".tsv");
+			reports.add(report);
+			processes.add(launch(temp, "--shard", index + "/" + SHARD_COUNT, "--infix", "-copy",
+					"--report", report.toString(), root.toString()));
+		}
+		for (var process : processes) {
+			assertThat(process.waitFor(2, TimeUnit.MINUTES)).isTrue();
+			assertThat(process.exitValue()).isEqualTo(HeadlessLauncher.EXIT_SUCCESS);
+		}
+
+		var merged = temp.resolve("merged.tsv");
+		var mergeArgs = new ArrayList<>(List.of("--report", merged.toString()));
+		reports.forEach(report -> mergeArgs.addAll(List.of("--merge", report.toString())));
+		var merge = launch(temp, mergeArgs.toArray(String[]::new));
+		assertThat(merge.waitFor(2, TimeUnit.MINUTES)).isTrue();
+		assertThat(merge.exitValue()).isEqualTo(HeadlessLauncher.EXIT_SUCCESS);
+
+		var shardPaths = new ArrayList<String>();
+		for (var report : reports) {
+			Report.read(report).getEntries().forEach(entry -> shardPaths.add(entry.path()));
+		}
+		assertThat(shardPaths).containsExactlyInAnyOrderElementsOf(pdfs);
+		assertThat(Report.read(merged).getFileCount(Report.Status.MODIFIED)).isEqualTo(PDF_COUNT);
+		for (var pdf : pdfs) {
+			assertThat(root.resolve(pdf.replace(".pdf", "-copy.pdf"))).exists();
+		}
+	}
+
+	private static Process launch(Path workingDir, String... args) throws Exception {
+		var command = new ArrayList<>(List.of(
+				Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+				"-cp", System.getProperty("java.class.path"),
+				HeadlessLauncher.class.getName()));
+		command.addAll(List.of(args));
+		return new ProcessBuilder(command)
+				.directory(workingDir.toFile())
+				.redirectErrorStream(true)
+				.redirectOutput(workingDir.resolve("output-" + System.nanoTime() + ".log").toFile())
+				.start();
+	}
+
+}
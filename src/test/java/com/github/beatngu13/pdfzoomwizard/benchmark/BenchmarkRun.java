@@ -0,0 +1,175 @@
+package com.github.beatngu13.pdfzoomwizard.benchmark;
+
+import com.github.beatngu13.pdfzoomwizard.core.Report;
+import com.github.beatngu13.pdfzoomwizard.core.Scheduling;
+import com.github.beatngu13.pdfzoomwizard.core.Wizard;
+import com.github.beatngu13.pdfzoomwizard.core.Zoom;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Single benchmark run in a fresh JVM, so that peak memory and GC time only cover this run. Arguments: corpus
+ * directory, worker count and optionally whether links are modified (default <code>true</code>), the
+ * {@link Scheduling} (default {@link Scheduling#LARGEST_FIRST}) and comma-separated zooms. Without links, bookmarks are
+ * patched on the fast outline path, see {@link Wizard#setFastOutline(boolean)}. Without zooms, copies are written next
+ * to the originals with {@link Zoom#FIT_PAGE}; with zooms, one variant per zoom is written into a temporary output
+ * root, so that runs with different zooms don't pick up each other's copies. Prints the {@link Metrics} as properties
+ * to standard output, along with the makespan and its ideal, see {@link #getIdealSeconds(Report, int)}.
+ *
+ * @author Daniel Kraus
+ */
+public final class BenchmarkRun {
+
+	static final String FILENAME_INFIX = "-benchmark";
+
+	private static final long MB = 1024 * 1024;
+
+	/**
+	 * @param filesPerSecond Modified files per second of wall-clock time.
+	 * @param mbPerSecond    Read megabytes per second of wall-clock time.
+	 * @param peakRssMb      Peak resident set size, <code>-1</code> if unknown (non-Linux).
+	 * @param peakHeapMb     Sum of the peak usages of all heap pools.
+	 * @param gcMillis       Accumulated time spent in garbage collection.
+	 */
+	record Metrics(double filesPerSecond, double mbPerSecond, double peakRssMb, double peakHeapMb,
+				   double gcMillis) {
+
+		Properties toProperties(String prefix) {
+			var properties = new Properties();
+			properties.setProperty(prefix + "filesPerSecond", format(filesPerSecond));
+			properties.setProperty(prefix + "mbPerSecond", format(mbPerSecond));
+			properties.setProperty(prefix + "peakRssMb", format(peakRssMb));
+			properties.setProperty(prefix + "peakHeapMb", format(peakHeapMb));
+			properties.setProperty(prefix + "gcMillis", format(gcMillis));
+			return properties;
+		}
+
+		static Metrics fromProperties(Properties properties, String prefix) {
+			return new Metrics(
+					Double.parseDouble(properties.getProperty(prefix + "filesPerSecond")),
+					Double.parseDouble(properties.getProperty(prefix + "mbPerSecond")),
+					Double.parseDouble(properties.getProperty(prefix + "peakRssMb")),
+					Double.parseDouble(properties.getProperty(prefix + "peakHeapMb")),
+					Double.parseDouble(properties.getProperty(prefix + "gcMillis")));
+		}
+
+		static String format(double value) {
+			return "%.2f".formatted(value);
+		}
+
+	}
+
+	private BenchmarkRun() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		var corpus = Path.of(args[0]);
+		var workerCount = Integer.parseInt(args[1]);
+		var modifyLinks = args.length < 3 || Boolean.parseBoolean(args[2]);
+		var scheduling = args.length < 4 ? Scheduling.LARGEST_FIRST : Scheduling.valueOf(args[3]);
+		var zooms = args.length < 5 ? null : Arrays.stream(args[4].split(",")).map(Zoom::valueOf).toList();
+
+		long bytes;
+		try (Stream<Path> tree = Files.walk(corpus)) {
+			bytes = tree.filter(path -> path.toString().endsWith(".pdf"))
+					.filter(path -> !path.toString().endsWith(FILENAME_INFIX + ".pdf"))
+					.mapToLong(path -> path.toFile().length())
+					.sum();
+		}
+
+		Wizard wizard;
+		Path outputRoot = null;
+		if (zooms == null) {
+			wizard = new Wizard(corpus.toFile(), FILENAME_INFIX, Zoom.FIT_PAGE);
+		} else {
+			var variants = new LinkedHashMap<Zoom, String>();
+			zooms.forEach(zoom -> variants.put(zoom, "-" + zoom.name().toLowerCase(Locale.ROOT)));
+			wizard = new Wizard(corpus.toFile(), variants);
+			outputRoot = Files.createTempDirectory(corpus.toAbsolutePath().getParent(), "output");
+			wizard.setOutputRoot(outputRoot.toFile());
+		}
+		wizard.setWorkerCount(workerCount);
+		wizard.setModifyLinks(modifyLinks);
+		// Ignored with links.
+		wizard.setFastOutline(true);
+		wizard.setScheduling(scheduling);
+		var start = System.nanoTime();
+		wizard.call();
+		var seconds = (System.nanoTime() - start) / 1e9;
+		if (outputRoot != null) {
+			deleteRecursively(outputRoot);
+		}
+
+		var report = wizard.getReport();
+		if (report.getFileCount(Report.Status.MODIFIED) != report.getEntries().size()) {
+			throw new IllegalStateException("Not all files have been modified.");
+		}
+		var metrics = new Metrics(report.getEntries().size() / seconds, bytes / (double) MB / seconds,
+				getPeakRssMb(), getPeakHeapMb(), getGcMillis());
+		var properties = metrics.toProperties("");
+		properties.setProperty("seconds", Metrics.format(seconds));
+		properties.setProperty("idealSeconds", Metrics.format(getIdealSeconds(report, workerCount)));
+		properties.store(System.out, null);
+	}
+
+	private static void deleteRecursively(Path directory) throws IOException {
+		try (Stream<Path> tree = Files.walk(directory)) {
+			for (var path : tree.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	/**
+	 * Estimates the ideal makespan: no schedule can finish before the longest file, nor before all work is spread
+	 * evenly across the workers.
+	 */
+	private static double getIdealSeconds(Report report, int workerCount) {
+		var millis = report.getEntries().stream()
+				.mapToLong(Report.Entry::millis)
+				.summaryStatistics();
+		return Math.max(millis.getMax(), millis.getSum() / (double) workerCount) / 1000;
+	}
+
+	private static double getPeakRssMb() throws IOException {
+		var status = Path.of("/proc/self/status");
+		if (!Files.isReadable(status)) {
+			return -1;
+		}
+		try (Stream<String> lines = Files.lines(status)) {
+			// E.g. "VmHWM:    123456 kB"
+			return lines.filter(line -> line.startsWith("VmHWM:"))
+					.mapToDouble(line -> Long.parseLong(line.replaceAll("\\D", "")) / 1024.0)
+					.findFirst()
+					.orElse(-1);
+		}
+	}
+
+	private static double getPeakHeapMb() {
+		return ManagementFactory.getMemoryPoolMXBeans().stream()
+				.filter(pool -> pool.getType() == MemoryType.HEAP)
+				.map(MemoryPoolMXBean::getPeakUsage)
+				.mapToLong(usage -> usage == null ? 0 : usage.getUsed())
+				.sum() / (double) MB;
+	}
+
+	private static double getGcMillis() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream()
+				.mapToLong(GarbageCollectorMXBean::getCollectionTime)
+				.filter(millis -> millis > 0)
+				.sum();
+	}
+
+}
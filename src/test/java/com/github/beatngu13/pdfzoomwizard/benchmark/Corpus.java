@@ -0,0 +1,111 @@
+package com.github.beatngu13.pdfzoomwizard.benchmark;
+
+import org.pdfclown.documents.Document;
+import org.pdfclown.documents.Page;
+import org.pdfclown.documents.contents.composition.PrimitiveComposer;
+import org.pdfclown.documents.contents.fonts.StandardType1Font;
+import org.pdfclown.documents.interaction.annotations.Link;
+import org.pdfclown.documents.interaction.navigation.document.Bookmark;
+import org.pdfclown.documents.interaction.navigation.document.LocalDestination;
+import org.pdfclown.files.SerializationModeEnum;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * Directory tree of generated PDFs. Each PDF has a table of contents page with one link per chapter, one bookmark
+ * per chapter (optionally with one child bookmark per further page) and some text on each page.
+ *
+ * @param name            Name of the corpus, used as key in the baseline.
+ * @param fileCount       Number of PDFs.
+ * @param directoryCount  Number of directories the PDFs are spread across.
+ * @param chapterCount    Number of chapters per PDF.
+ * @param pagesPerChapter Number of pages per chapter.
+ * @param childBookmarks  Whether each further page of a chapter has a child bookmark.
+ */
+record Corpus(String name, int fileCount, int directoryCount, int chapterCount, int pagesPerChapter,
+			  boolean childBookmarks) {
+
+	private static final int LINK_HEIGHT = 12;
+
+	/**
+	 * Creates a corpus with child bookmarks.
+	 */
+	Corpus(String name, int fileCount, int directoryCount, int chapterCount, int pagesPerChapter) {
+		this(name, fileCount, directoryCount, chapterCount, pagesPerChapter, true);
+	}
+
+	/**
+	 * Generates the corpus, unless it already exists.
+	 *
+	 * @param root Directory to generate the corpus in.
+	 * @return Directory containing the corpus.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	Path generate(Path root) throws IOException {
+		var corpus = root.resolve(name);
+		if (Files.isDirectory(corpus)) {
+			return corpus;
+		}
+		var partial = root.resolve(name + ".partial");
+		for (int i = 0; i < fileCount; i++) {
+			var pdf = partial.resolve("dir" + i % directoryCount).resolve("document" + i + ".pdf");
+			Files.createDirectories(pdf.getParent());
+			generatePdf(pdf);
+		}
+		return Files.move(partial, corpus);
+	}
+
+	private void generatePdf(Path pdf) throws IOException {
+		var file = new org.pdfclown.files.File();
+		var document = file.getDocument();
+		var font = new StandardType1Font(document, StandardType1Font.FamilyEnum.Times, false, false);
+
+		var tocPage = new Page(document);
+		document.getPages().add(tocPage);
+		var toc = new PrimitiveComposer(tocPage);
+		toc.setFont(font, LINK_HEIGHT);
+
+		var bookmarks = document.getBookmarks();
+		for (int chapter = 1; chapter <= chapterCount; chapter++) {
+			var pages = new ArrayList<Page>();
+			for (int i = 0; i < pagesPerChapter; i++) {
+				var page = new Page(document);
+				document.getPages().add(page);
+				writeText(page, font, "Chapter %d, page %d".formatted(chapter, i + 1));
+				pages.add(page);
+			}
+
+			var title = "Chapter " + chapter;
+			var bookmark = new Bookmark(document, title, new LocalDestination(pages.get(0)));
+			bookmarks.add(bookmark);
+			for (int i = 1; childBookmarks && i < pages.size(); i++) {
+				bookmark.getBookmarks().add(new Bookmark(document, "Page " + (i + 1),
+						new LocalDestination(pages.get(i))));
+			}
+
+			var y = LINK_HEIGHT * 2.0 * chapter % (tocPage.getSize().getHeight() - LINK_HEIGHT);
+			toc.showText(title, new Point2D.Double(LINK_HEIGHT, y));
+			new Link(tocPage, new Rectangle2D.Double(LINK_HEIGHT, y, 100, LINK_HEIGHT), title,
+					new LocalDestination(pages.get(0)));
+		}
+		toc.flush();
+
+		file.save(pdf.toFile(), SerializationModeEnum.Standard);
+	}
+
+	private static void writeText(Page page, StandardType1Font font, String text) {
+		var composer = new PrimitiveComposer(page);
+		composer.setFont(font, LINK_HEIGHT);
+		var height = page.getSize().getHeight();
+		for (int line = 1; line * LINK_HEIGHT * 2 < height; line++) {
+			composer.showText(text + ", line " + line, new Point2D.Double(LINK_HEIGHT, line * LINK_HEIGHT * 2));
+		}
+		composer.flush();
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.github.beatngu13.pdfzoomwizard.benchmark;
+
+import com.github.beatngu13.pdfzoomwizard.benchmark.BenchmarkRun.Metrics;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+
+import static com.github.beatngu13.pdfzoomwizard.benchmark.ThroughputBenchmark.OUTPUT;
+import static com.github.beatngu13.pdfzoomwizard.benchmark.ThroughputBenchmark.TOLERANCE;
+import static com.github.beatngu13.pdfzoomwizard.benchmark.ThroughputBenchmark.run;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of the outline-only mode (bookmarks without links), run with <code>mvn verify -Pbenchmark</code>. Two
+ * corpora with the same outline but ten times as many pages are processed by a single worker, once outline-only and
+ * once with links, which requires PDF Clown's full document model. Results are written to
+ * <i>target/benchmark/outline.tsv</i>.
+ * <p>
+ * Outline-only memory must scale with the outline rather than with the document, i.e. must not grow by more than the
+ * tolerance (plus some slack) from the small to the large corpus.
+ */
+class OutlineBenchmark {
+
+	static final Corpus SMALL = new Corpus("outline-300-pages", 4, 1, 30, 10, false);
+	static final Corpus LARGE = new Corpus("outline-3000-pages", 4, 1, 30, 100, false);
+
+	/**
+	 * Peak heap includes the JVM's own allocations, so it only regresses beyond this absolute slack.
+	 */
+	static final double HEAP_MB_SLACK = 8;
+
+	@Test
+	void outline_only_memory_should_not_scale_with_document_size() throws Exception {
+		var outlineOnly = new LinkedHashMap<Corpus, Metrics>();
+		var table = new StringBuilder("corpus\tmode\tfiles/s\tMB/s\tpeak RSS MB\tpeak heap MB\tGC ms\n");
+		for (var corpus : new Corpus[] { SMALL, LARGE }) {
+			var directory = corpus.generate(OUTPUT.resolve("corpora"));
+			for (var modifyLinks : new boolean[] { false, true }) {
+				var metrics = run(directory, 1, modifyLinks);
+				if (!modifyLinks) {
+					outlineOnly.put(corpus, metrics);
+				}
+				table.append("%s\t%s\t%.2f\t%.2f\t%.0f\t%.0f\t%.0f%n".formatted(corpus.name(),
+						modifyLinks ? "full" : "outline-only", metrics.filesPerSecond(), metrics.mbPerSecond(),
+						metrics.peakRssMb(), metrics.peakHeapMb(), metrics.gcMillis()));
+			}
+		}
+		Files.createDirectories(OUTPUT);
+		Files.writeString(OUTPUT.resolve("outline.tsv"), table);
+		System.out.print(table);
+
+		var small = outlineOnly.get(SMALL).peakHeapMb();
+		var maximum = Math.max(small * (1 + TOLERANCE), small + HEAP_MB_SLACK);
+		assertThat(outlineOnly.get(LARGE).peakHeapMb())
+				.as("Outline-only peak heap MB of %s", LARGE.name())
+				.isLessThanOrEqualTo(maximum);
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.github.beatngu13.pdfzoomwizard.benchmark;
+
+import com.github.beatngu13.pdfzoomwizard.core.Scheduling;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.EnumMap;
+
+import static com.github.beatngu13.pdfzoomwizard.benchmark.ThroughputBenchmark.OUTPUT;
+import static com.github.beatngu13.pdfzoomwizard.benchmark.ThroughputBenchmark.TOLERANCE;
+import static com.github.beatngu13.pdfzoomwizard.benchmark.ThroughputBenchmark.WORKER_COUNTS;
+import static com.github.beatngu13.pdfzoomwizard.benchmark.ThroughputBenchmark.runProperties;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of {@link Scheduling}, run with <code>mvn verify -Pbenchmark</code>. A tree of many small PDFs and one
+ * large PDF is processed by the maximum number of workers, once per scheduling, and the makespans are compared with
+ * the ideal one. Results are written to <i>target/benchmark/scheduling.tsv</i>.
+ * <p>
+ * Largest-first must not be slower than walk order (beyond the tolerance). How much faster it is depends on where
+ * the large PDF happens to be in walk order, which is up to the file system.
+ */
+class SchedulingBenchmark {
+
+	static final Corpus SMALL = new Corpus("small", 24, 4, 5, 2);
+	static final Corpus LARGE = new Corpus("large", 1, 1, 100, 20);
+
+	@Test
+	void largest_first_should_not_be_slower_than_walk_order() throws Exception {
+		var root = OUTPUT.resolve("corpora").resolve("skewed");
+		SMALL.generate(root);
+		LARGE.generate(root);
+		var workerCount = Collections.max(WORKER_COUNTS);
+
+		var seconds = new EnumMap<Scheduling, Double>(Scheduling.class);
+		var table = new StringBuilder("scheduling\tworkers\tmakespan s\tideal s\tmakespan/ideal\n");
+		for (var scheduling : Scheduling.values()) {
+			var properties = runProperties(root, workerCount, "true", scheduling.name());
+			var makespan = Double.parseDouble(properties.getProperty("seconds"));
+			var ideal = Double.parseDouble(properties.getProperty("idealSeconds"));
+			seconds.put(scheduling, makespan);
+			table.append("%s\t%d\t%.2f\t%.2f\t%.2f%n".formatted(scheduling, workerCount, makespan, ideal,
+					makespan / ideal));
+		}
+		Files.createDirectories(OUTPUT);
+		Files.writeString(OUTPUT.resolve("scheduling.tsv"), table);
+		System.out.print(table);
+
+		assertThat(seconds.get(Scheduling.LARGEST_FIRST))
+				.as("Makespan of %s in seconds", Scheduling.LARGEST_FIRST)
+				.isLessThanOrEqualTo(seconds.get(Scheduling.WALK_ORDER) * (1 + TOLERANCE));
+	}
+
+}
@@ -0,0 +1,195 @@
+package com.github.beatngu13.pdfzoomwizard.benchmark;
+
+import com.github.beatngu13.pdfzoomwizard.benchmark.BenchmarkRun.Metrics;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end throughput and memory benchmark, run with <code>mvn verify -Pbenchmark</code>. Each {@link Corpus} is
+ * processed at each worker count in a fresh JVM (see {@link BenchmarkRun}), the results are compared against the
+ * stored baseline and fail the build if any metric regresses by more than the tolerance. Results and scaling curves
+ * (speedup over a single worker) are written to <i>target/benchmark/</i>.
+ * <p>
+ * The baseline is machine-specific: run with <code>-Dbenchmark.updateBaseline=true</code> on the reference machine
+ * to record or replace it. Without a baseline, the benchmark fails. The baseline holds the number of processors it has
+ * been recorded with, which must be at least the largest worker count (otherwise, scaling regressions cannot show) and
+ * must match the current machine.
+ */
+class ThroughputBenchmark {
+
+	static final List<Corpus> CORPORA = List.of(
+			new Corpus("many-small", 48, 8, 5, 2),
+			new Corpus("few-large", 8, 2, 100, 5));
+
+	static final List<Integer> WORKER_COUNTS = Arrays.stream(System.getProperty("benchmark.workers", "1,2,4")
+					.split(","))
+			.map(String::trim)
+			.map(Integer::valueOf)
+			.toList();
+	static final Path BASELINE = Paths.get(System.getProperty("benchmark.baseline",
+			"src/test/benchmark/baseline.properties"));
+	static final double TOLERANCE = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.25"));
+	static final boolean UPDATE_BASELINE = Boolean.getBoolean("benchmark.updateBaseline");
+	static final Path OUTPUT = Paths.get("target/benchmark");
+	static final String PROCESSORS = "availableProcessors";
+
+	/**
+	 * GC time is noisy for short runs, so it only regresses beyond this absolute slack.
+	 */
+	static final double GC_MILLIS_SLACK = 100;
+
+	@Test
+	void throughput_should_not_regress() throws Exception {
+		var results = new Properties();
+		var curves = new StringBuilder("corpus\tworkers\tfiles/s\tMB/s\tspeedup\tpeak RSS MB\tpeak heap MB\tGC ms\n");
+		for (var corpus : CORPORA) {
+			var directory = corpus.generate(OUTPUT.resolve("corpora"));
+			Metrics single = null;
+			for (var workerCount : WORKER_COUNTS) {
+				var metrics = run(directory, workerCount, true);
+				results.putAll(metrics.toProperties(key(corpus, workerCount)));
+				if (single == null) {
+					single = metrics;
+				}
+				curves.append("%s\t%d\t%.2f\t%.2f\t%.2f\t%.0f\t%.0f\t%.0f%n".formatted(corpus.name(), workerCount,
+						metrics.filesPerSecond(), metrics.mbPerSecond(),
+						metrics.filesPerSecond() / single.filesPerSecond(), metrics.peakRssMb(),
+						metrics.peakHeapMb(), metrics.gcMillis()));
+			}
+		}
+		Files.writeString(OUTPUT.resolve("scaling.tsv"), curves);
+		store(results, OUTPUT.resolve("results.properties"));
+		System.out.print(curves);
+
+		var processors = Runtime.getRuntime().availableProcessors();
+		var maxWorkerCount = WORKER_COUNTS.stream().mapToInt(Integer::intValue).max().orElseThrow();
+		if (UPDATE_BASELINE) {
+			assertThat(processors)
+					.as("Processors to record a baseline which covers scaling up to %d workers", maxWorkerCount)
+					.isGreaterThanOrEqualTo(maxWorkerCount);
+			results.setProperty(PROCESSORS, String.valueOf(processors));
+			store(results, BASELINE);
+			return;
+		}
+		assertThat(BASELINE)
+				.as("Baseline, record one with -Dbenchmark.updateBaseline=true on the reference machine")
+				.exists();
+		var baseline = load(BASELINE);
+		assertThat(baseline.getProperty(PROCESSORS))
+				.as("Processors of %s, record it again with -Dbenchmark.updateBaseline=true", BASELINE)
+				.isEqualTo(String.valueOf(processors));
+		var regressions = new ArrayList<String>();
+		for (var corpus : CORPORA) {
+			for (var workerCount : WORKER_COUNTS) {
+				var key = key(corpus, workerCount);
+				if (!baseline.containsKey(key + "filesPerSecond")) {
+					continue;
+				}
+				regressions.addAll(compare(key, Metrics.fromProperties(baseline, key),
+						Metrics.fromProperties(results, key)));
+			}
+		}
+		assertThat(regressions).as("Regressions against %s", BASELINE).isEmpty();
+	}
+
+	/**
+	 * Runs {@link BenchmarkRun} in a fresh JVM.
+	 */
+	static Metrics run(Path corpus, int workerCount, boolean modifyLinks) throws IOException, InterruptedException {
+		return Metrics.fromProperties(runProperties(corpus, workerCount, String.valueOf(modifyLinks)), "");
+	}
+
+	/**
+	 * Runs {@link BenchmarkRun} in a fresh JVM with the given optional arguments.
+	 *
+	 * @return All printed properties.
+	 */
+	static Properties runProperties(Path corpus, int workerCount, String... options)
+			throws IOException, InterruptedException {
+		var command = new ArrayList<>(List.of(
+				Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+				"-Dlogback.configurationFile=logback-worker.xml",
+				"-cp", System.getProperty("java.class.path"),
+				BenchmarkRun.class.getName(),
+				corpus.toString(),
+				String.valueOf(workerCount)));
+		command.addAll(List.of(options));
+		var process = new ProcessBuilder(command)
+				.redirectError(ProcessBuilder.Redirect.INHERIT)
+				.start();
+		var output = process.getInputStream().readAllBytes();
+		assertThat(process.waitFor(10, TimeUnit.MINUTES)).isTrue();
+		assertThat(process.exitValue()).as("Exit code of benchmark run").isZero();
+
+		var properties = new Properties();
+		properties.load(new ByteArrayInputStream(output));
+		return properties;
+	}
+
+	private static List<String> compare(String key, Metrics baseline, Metrics actual) {
+		var regressions = new ArrayList<String>();
+		checkMinimum(regressions, key + "filesPerSecond", baseline.filesPerSecond(), actual.filesPerSecond());
+		checkMinimum(regressions, key + "mbPerSecond", baseline.mbPerSecond(), actual.mbPerSecond());
+		checkMaximum(regressions, key + "peakRssMb", baseline.peakRssMb(), actual.peakRssMb(), 0);
+		checkMaximum(regressions, key + "peakHeapMb", baseline.peakHeapMb(), actual.peakHeapMb(), 0);
+		checkMaximum(regressions, key + "gcMillis", baseline.gcMillis(), actual.gcMillis(), GC_MILLIS_SLACK);
+		return regressions;
+	}
+
+	private static void checkMinimum(List<String> regressions, String metric, double baseline, double actual) {
+		var minimum = baseline * (1 - TOLERANCE);
+		if (actual < minimum) {
+			regressions.add("%s: %.2f < %.2f (baseline %.2f)".formatted(metric, actual, minimum, baseline));
+		}
+	}
+
+	private static void checkMaximum(List<String> regressions, String metric, double baseline, double actual,
+									 double slack) {
+		// Unknown on this platform.
+		if (baseline < 0 || actual < 0) {
+			return;
+		}
+		var maximum = Math.max(baseline * (1 + TOLERANCE), baseline + slack);
+		if (actual > maximum) {
+			regressions.add("%s: %.2f > %.2f (baseline %.2f)".formatted(metric, actual, maximum, baseline));
+		}
+	}
+
+	private static String key(Corpus corpus, int workerCount) {
+		return corpus.name() + ".workers" + workerCount + ".";
+	}
+
+	private static Properties load(Path file) throws IOException {
+		var properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		}
+		return properties;
+	}
+
+	private static void store(Properties properties, Path file) throws IOException {
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		// Sorted for readable diffs of the baseline.
+		var lines = new ArrayList<String>();
+		lines.add("# PDF Zoom Wizard throughput benchmark, see ThroughputBenchmark");
+		properties.stringPropertyNames().stream()
+				.sorted()
+				.forEach(key -> lines.add(key + "=" + properties.getProperty(key)));
+		Files.write(file, lines, StandardCharsets.UTF_8);
+	}
+
+}
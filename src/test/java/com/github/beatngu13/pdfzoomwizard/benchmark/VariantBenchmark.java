@@ -0,0 +1,61 @@
+package com.github.beatngu13.pdfzoomwizard.benchmark;
+
+import com.github.beatngu13.pdfzoomwizard.core.Scheduling;
+import com.github.beatngu13.pdfzoomwizard.core.Zoom;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.github.beatngu13.pdfzoomwizard.benchmark.ThroughputBenchmark.OUTPUT;
+import static com.github.beatngu13.pdfzoomwizard.benchmark.ThroughputBenchmark.runProperties;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of writing several zoom variants from a single parse, run with <code>mvn verify -Pbenchmark</code>. The
+ * few-large corpus of {@link ThroughputBenchmark} is processed by a single worker, once per zoom and once with all
+ * zooms as variants, with links (i.e. PDF Clown's full document model) and without (outline-only). Results are
+ * written to <i>target/benchmark/variants.tsv</i>.
+ * <p>
+ * A variants run must be faster than the separate runs together.
+ */
+class VariantBenchmark {
+
+	static final Corpus CORPUS = ThroughputBenchmark.CORPORA.get(1);
+	static final List<Zoom> ZOOMS = List.of(Zoom.FIT_PAGE, Zoom.FIT_WIDTH, Zoom.ACTUAL_SIZE);
+
+	@Test
+	void variants_should_be_faster_than_separate_runs() throws Exception {
+		var directory = CORPUS.generate(OUTPUT.resolve("corpora"));
+		var table = new StringBuilder("mode\tlinks\tseconds\n");
+		var slower = new ArrayList<String>();
+		for (var modifyLinks : new boolean[] { true, false }) {
+			var separate = 0.0;
+			for (var zoom : ZOOMS) {
+				separate += run(directory, modifyLinks, zoom.name());
+			}
+			var variants = run(directory, modifyLinks,
+					ZOOMS.stream().map(Zoom::name).collect(Collectors.joining(",")));
+			table.append("%d separate runs\t%b\t%.2f%n".formatted(ZOOMS.size(), modifyLinks, separate));
+			table.append("%d variants\t%b\t%.2f%n".formatted(ZOOMS.size(), modifyLinks, variants));
+			if (variants >= separate) {
+				slower.add("links %b: %.2f s >= %.2f s".formatted(modifyLinks, variants, separate));
+			}
+		}
+		Files.createDirectories(OUTPUT);
+		Files.writeString(OUTPUT.resolve("variants.tsv"), table);
+		System.out.print(table);
+
+		assertThat(slower).as("Variants not faster than separate runs").isEmpty();
+	}
+
+	private static double run(Path directory, boolean modifyLinks, String zooms) throws Exception {
+		var properties = runProperties(directory, 1, String.valueOf(modifyLinks), Scheduling.LARGEST_FIRST.name(),
+				zooms);
+		return Double.parseDouble(properties.getProperty("seconds"));
+	}
+
+}
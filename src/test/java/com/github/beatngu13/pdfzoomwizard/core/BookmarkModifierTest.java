@@ -21,7 +21,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
-class WizardTest {
+class BookmarkModifierTest {
 
 	@Mock
 	Bookmark bookmark;
@@ -33,7 +33,7 @@ class WizardTest {
 	Iterator<Bookmark> bookmarksIterator;
 	Iterator<Bookmark> childBookmarksIterator;
 
-	Wizard cut = new Wizard(null, null, Zoom.ACTUAL_SIZE);
+	BookmarkModifier cut = new BookmarkModifier(Zoom.ACTUAL_SIZE);
 
 	@BeforeEach
 	void setUp() {
@@ -7,6 +7,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.pdfclown.documents.interaction.navigation.document.Bookmark;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,4 +31,20 @@ class BookmarkUtilTest {
 		assertThat(BookmarkUtil.getTitle(bookmark)).isEqualTo(BookmarkUtil.BOOKMARK_TITLE_FALLBACK);
 	}
 
+	@Test
+	void lazy_title_should_not_be_decoded_until_formatted() {
+		BookmarkUtil.getLazyTitle(bookmark);
+		verify(bookmark, never()).getTitle();
+	}
+
+	@Test
+	void lazy_title_should_be_decoded_only_once() {
+		var title = "foo";
+		when(bookmark.getTitle()).thenReturn(title);
+		var lazyTitle = BookmarkUtil.getLazyTitle(bookmark);
+		assertThat(lazyTitle).hasToString(title);
+		assertThat(lazyTitle).hasToString(title);
+		verify(bookmark, times(1)).getTitle();
+	}
+
 }
@@ -0,0 +1,23 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommitGuardTest {
+
+	CommitGuard cut = new CommitGuard();
+
+	@Test
+	void commit_should_prevent_abandon() {
+		assertThat(cut.commit()).isTrue();
+		assertThat(cut.abandon()).isFalse();
+	}
+
+	@Test
+	void abandon_should_prevent_commit() {
+		assertThat(cut.abandon()).isTrue();
+		assertThat(cut.commit()).isFalse();
+	}
+
+}
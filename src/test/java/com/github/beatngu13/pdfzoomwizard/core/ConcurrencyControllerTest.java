@@ -0,0 +1,143 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyControllerTest {
+
+	static final long WINDOW_NANOS = Duration.ofSeconds(1).toNanos();
+	static final long MB = 1024 * 1024;
+
+	long now;
+	double heapUsage;
+	ConcurrencyController cut;
+
+	@BeforeEach
+	void setUp() {
+		cut = new ConcurrencyController(1, 4, Duration.ofNanos(WINDOW_NANOS), () -> now, () -> heapUsage);
+	}
+
+	@Test
+	void limit_should_increase_while_throughput_improves() throws Exception {
+		completeWindow(10 * MB, 100);
+		assertThat(cut.getLimit()).isEqualTo(2);
+
+		completeWindow(20 * MB, 100);
+		assertThat(cut.getLimit()).isEqualTo(3);
+
+		completeWindow(30 * MB, 100);
+		assertThat(cut.getLimit()).isEqualTo(4);
+
+		completeWindow(40 * MB, 100);
+		assertThat(cut.getLimit()).as("Upper bound").isEqualTo(4);
+		assertThat(cut.getDecisions()).extracting(ConcurrencyController.Decision::to).containsExactly(2, 3, 4);
+	}
+
+	@Test
+	void limit_should_reverse_when_throughput_drops() throws Exception {
+		completeWindow(10 * MB, 100);
+		completeWindow(20 * MB, 100);
+		assertThat(cut.getLimit()).isEqualTo(3);
+
+		completeWindow(15 * MB, 100);
+		assertThat(cut.getLimit()).isEqualTo(2);
+	}
+
+	@Test
+	void limit_should_turn_around_at_lower_bound() throws Exception {
+		completeWindow(10 * MB, 100);
+		completeWindow(5 * MB, 100);
+		assertThat(cut.getLimit()).isEqualTo(1);
+
+		completeWindow(10 * MB, 100);
+		assertThat(cut.getLimit()).as("Lower bound").isEqualTo(1);
+
+		completeWindow(20 * MB, 100);
+		assertThat(cut.getLimit()).isEqualTo(2);
+	}
+
+	@Test
+	void limit_should_hold_at_upper_bound_while_throughput_improves() throws Exception {
+		completeWindow(10 * MB, 100);
+		completeWindow(20 * MB, 100);
+		completeWindow(30 * MB, 100);
+		completeWindow(40 * MB, 100);
+		completeWindow(50 * MB, 100);
+		assertThat(cut.getLimit()).as("Upper bound").isEqualTo(4);
+
+		completeWindow(40 * MB, 100);
+		assertThat(cut.getLimit()).isEqualTo(3);
+	}
+
+	@Test
+	void limit_should_hold_on_plateau() throws Exception {
+		completeWindow(10 * MB, 100);
+		completeWindow(10 * MB, 100);
+
+		assertThat(cut.getLimit()).isEqualTo(2);
+		assertThat(cut.getDecisions()).hasSize(1);
+	}
+
+	@Test
+	void limit_should_be_halved_on_heap_pressure() throws Exception {
+		completeWindow(10 * MB, 100);
+		completeWindow(20 * MB, 100);
+		completeWindow(30 * MB, 100);
+		assertThat(cut.getLimit()).isEqualTo(4);
+
+		heapUsage = 0.9;
+		completeWindow(30 * MB, 100);
+
+		assertThat(cut.getLimit()).isEqualTo(2);
+		assertThat(cut.getDecisions()).last()
+				.satisfies(decision -> assertThat(decision.reason()).startsWith("heap pressure"));
+	}
+
+	@Test
+	void limit_should_be_halved_on_latency_spike() throws Exception {
+		completeWindow(10 * MB, 100);
+		completeWindow(20 * MB, 100);
+		completeWindow(30 * MB, 100);
+		assertThat(cut.getLimit()).isEqualTo(4);
+
+		completeWindow(30 * MB, 1000);
+
+		assertThat(cut.getLimit()).isEqualTo(2);
+		assertThat(cut.getDecisions()).last()
+				.satisfies(decision -> assertThat(decision.reason()).startsWith("latency spike"));
+	}
+
+	@Test
+	void acquire_should_block_while_limit_is_reached() throws Exception {
+		cut.acquire();
+
+		var second = CompletableFuture.runAsync(() -> {
+			try {
+				cut.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		Thread.sleep(100);
+		assertThat(second).isNotDone();
+		cut.release(0, 0);
+		second.get(10, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Completes a single file of the given size after a window.
+	 */
+	private void completeWindow(long bytes, long latencyMillis) throws InterruptedException {
+		cut.acquire();
+		now += WINDOW_NANOS;
+		cut.release(bytes, TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileUtilTest {
+
+	@TempDir
+	Path temp;
+
+	@Test
+	void target_should_be_original_if_infix_is_null() {
+		var pdf = temp.resolve("foo.pdf");
+
+		assertThat(FileUtil.getTarget(pdf, null)).isEqualTo(pdf.toAbsolutePath());
+	}
+
+	@Test
+	void target_should_be_copy_if_infix_is_not_null() {
+		var pdf = temp.resolve("foo.pdf.pdf");
+
+		assertThat(FileUtil.getTarget(pdf, "-copy")).isEqualTo(temp.resolve("foo.pdf-copy.pdf").toAbsolutePath());
+	}
+
+	@Test
+	void target_should_keep_extension_of_archive() {
+		var zip = temp.resolve("foo.zip");
+
+		assertThat(FileUtil.getTarget(zip, "-copy")).isEqualTo(temp.resolve("foo-copy.zip").toAbsolutePath());
+	}
+
+	@Test
+	void hash_should_only_depend_on_content() throws Exception {
+		var foo = Files.writeString(temp.resolve("foo"), "content");
+		var bar = Files.writeString(temp.resolve("bar"), "content");
+		var baz = Files.writeString(temp.resolve("baz"), "other content");
+
+		assertThat(FileUtil.hash(foo))
+				.isEqualTo(FileUtil.hash(bar))
+				.isNotEqualTo(FileUtil.hash(baz))
+				.hasSize(64);
+	}
+
+	@Test
+	void link_should_replace_target() throws Exception {
+		var source = Files.writeString(temp.resolve("source"), "new");
+		var target = Files.writeString(temp.resolve("target"), "old");
+
+		FileUtil.replaceWithLinkOrCopy(source, target, true);
+
+		assertThat(target).hasContent("new");
+		assertThat(Files.isSameFile(source, target)).isTrue();
+		assertThat(FileUtil.getPartFile(target)).doesNotExist();
+	}
+
+	@Test
+	void copy_should_replace_target() throws Exception {
+		var source = Files.writeString(temp.resolve("source"), "new");
+		var target = Files.writeString(temp.resolve("target"), "old");
+
+		FileUtil.replaceWithLinkOrCopy(source, target, false);
+
+		assertThat(target).hasContent("new");
+		assertThat(Files.isSameFile(source, target)).isFalse();
+	}
+
+}
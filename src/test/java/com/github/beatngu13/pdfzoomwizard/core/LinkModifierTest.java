@@ -0,0 +1,75 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.pdfclown.documents.Page;
+import org.pdfclown.documents.PageAnnotations;
+import org.pdfclown.documents.Pages;
+import org.pdfclown.documents.interaction.annotations.Annotation;
+import org.pdfclown.documents.interaction.annotations.Link;
+import org.pdfclown.documents.interaction.navigation.document.LocalDestination;
+import org.pdfclown.objects.PdfDictionary;
+import org.pdfclown.objects.PdfName;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LinkModifierTest {
+
+	@Mock
+	Pages pages;
+	@Mock
+	Page page;
+	@Mock
+	PdfDictionary pageDictionary;
+	@Mock
+	PageAnnotations annotations;
+	@Mock
+	Link link;
+
+	LinkModifier cut = new LinkModifier(Zoom.FIT_PAGE);
+
+	@BeforeEach
+	void setUp() {
+		when(pages.iterator()).thenReturn(List.of(page).iterator());
+		when(page.getBaseDataObject()).thenReturn(pageDictionary);
+	}
+
+	@Test
+	void page_without_annotations_should_be_skipped() {
+		when(pageDictionary.containsKey(PdfName.Annots)).thenReturn(false);
+
+		assertThat(cut.modifyLinks(pages)).isZero();
+		verify(page, never()).getAnnotations();
+	}
+
+	@Test
+	void local_destination_should_be_modified(@Mock LocalDestination destination) {
+		when(pageDictionary.containsKey(PdfName.Annots)).thenReturn(true);
+		when(page.getAnnotations()).thenReturn(annotations);
+		when(annotations.iterator()).thenReturn(List.<Annotation>of(link).iterator());
+		when(link.getTarget()).then(invocation -> destination);
+
+		assertThat(cut.modifyLinks(pages)).isOne();
+		verify(destination).setMode(Zoom.FIT_PAGE.getMode());
+	}
+
+	@Test
+	void get_target_exception_should_not_crash_execution() {
+		when(pageDictionary.containsKey(PdfName.Annots)).thenReturn(true);
+		when(page.getAnnotations()).thenReturn(annotations);
+		when(annotations.iterator()).thenReturn(List.<Annotation>of(link).iterator());
+		when(link.getTarget()).thenThrow(RuntimeException.class);
+
+		assertThat(cut.modifyLinks(pages)).isZero();
+	}
+
+}
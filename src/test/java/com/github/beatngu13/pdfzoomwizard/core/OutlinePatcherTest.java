@@ -0,0 +1,134 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutlinePatcherTest {
+
+	@TempDir
+	Path temp;
+	Path pdf;
+	Path output;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		pdf = Files.copy(Paths.get("src/test/resources/sample.pdf"), temp.resolve("sample.pdf"));
+		output = temp.resolve("output.pdf");
+	}
+
+	@ParameterizedTest
+	@EnumSource
+	void patch_should_match_pdf_clown(Zoom zoom) throws Exception {
+		var expected = Files.copy(pdf, temp.resolve("expected.pdf"));
+		var expectedCount = new PdfFileModifier(null, new BookmarkModifier(zoom), null,
+				OutputLayout.nextToOriginals(null), null).modify(expected);
+
+		var count = new OutlinePatcher(zoom).patch(pdf, output);
+
+		assertThat(count).isEqualTo(expectedCount);
+		assertThat(WizardITUtil.getBookmarks(output.toFile()))
+				.isEqualTo(WizardITUtil.getBookmarks(expected.toFile()));
+		assertThat(new PdfVerifier(zoom, false).verify(output)).isZero();
+	}
+
+	@Test
+	void incrementally_updated_pdf_should_match_pdf_clown() throws Exception {
+		// Classic cross-reference tables in two sections, the outline partly in the later one.
+		var updated = temp.resolve("updated.pdf");
+		try (var document = new PdfDocument(new PdfReader(pdf.toFile()), new PdfWriter(updated.toString()),
+				new StampingProperties().useAppendMode())) {
+			var outline = document.getOutlines(false).getAllChildren().get(0);
+			outline.setTitle("Updated");
+			outline.getContent().setModified();
+		}
+		var content = Files.readString(updated, StandardCharsets.ISO_8859_1);
+		assertThat(content.split("\nxref\r?\n", -1)).hasSize(3);
+		assertThat(content).doesNotContain("/XRef");
+		var expected = Files.copy(updated, temp.resolve("expected.pdf"));
+		var expectedCount = new PdfFileModifier(Zoom.FIT_PAGE, false, OutputLayout.nextToOriginals(null), null)
+				.modify(expected);
+
+		var count = new OutlinePatcher(Zoom.FIT_PAGE).patch(updated, output);
+
+		assertThat(count).isEqualTo(expectedCount);
+		assertThat(WizardITUtil.getBookmarks(output.toFile()))
+				.isEqualTo(WizardITUtil.getBookmarks(expected.toFile()))
+				.extracting(WizardITUtil.Bookmark::title).contains("Updated");
+		assertThat(new PdfVerifier(Zoom.FIT_PAGE, false).verify(output)).isZero();
+	}
+
+	@Test
+	void patch_should_append_incremental_update() throws Exception {
+		new OutlinePatcher(Zoom.FIT_PAGE).patch(pdf, output);
+
+		var original = Files.readAllBytes(pdf);
+		var patched = Files.readAllBytes(output);
+		assertThat(patched.length).isGreaterThan(original.length);
+		assertThat(Arrays.copyOf(patched, original.length)).isEqualTo(original);
+	}
+
+	@Test
+	void patched_pdf_should_be_patchable_again() throws Exception {
+		new OutlinePatcher(Zoom.FIT_PAGE).patch(pdf, output);
+		var again = temp.resolve("again.pdf");
+
+		new OutlinePatcher(Zoom.ACTUAL_SIZE).patch(output, again);
+
+		assertThat(new PdfVerifier(Zoom.ACTUAL_SIZE, false).verify(again)).isZero();
+	}
+
+	@Test
+	void xref_stream_should_be_rejected() throws Exception {
+		var compressed = temp.resolve("compressed.pdf");
+		try (var document = new PdfDocument(new PdfReader(pdf.toFile()),
+				new PdfWriter(compressed.toString(), new WriterProperties().setFullCompressionMode(true)))) {
+			document.getNumberOfPages();
+		}
+
+		assertThatThrownBy(() -> new OutlinePatcher(Zoom.FIT_PAGE).patch(compressed, output))
+				.isInstanceOf(IOException.class);
+		assertThat(output).doesNotExist();
+		assertThat(new PdfFileModifier(Zoom.FIT_PAGE, false, true, OutputLayout.nextToOriginals(null), null)
+				.modify(compressed)).as("Falls back to PDF Clown").isPositive();
+		assertThat(new PdfVerifier(Zoom.FIT_PAGE, false).verify(compressed)).isZero();
+	}
+
+	@Test
+	void xref_entries_of_wrong_size_should_be_rejected() throws Exception {
+		var content = Files.readString(pdf, StandardCharsets.ISO_8859_1);
+		var lastXref = content.lastIndexOf("\nxref\r\n");
+		// One-byte end-of-line markers, which shifts all but the first entry of each subsection.
+		var malformed = Files.writeString(temp.resolve("malformed.pdf"), content.substring(0, lastXref)
+				+ content.substring(lastXref).replace(" n\r\n", " n\n"), StandardCharsets.ISO_8859_1);
+
+		assertThatThrownBy(() -> new OutlinePatcher(Zoom.FIT_PAGE).patch(malformed, output))
+				.isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void non_pdf_should_be_rejected() throws Exception {
+		var text = Files.writeString(temp.resolve("text.pdf"), "This is not a PDF.");
+
+		assertThatThrownBy(() -> new OutlinePatcher(Zoom.FIT_PAGE).patch(text, output))
+				.isInstanceOf(IOException.class);
+	}
+
+}
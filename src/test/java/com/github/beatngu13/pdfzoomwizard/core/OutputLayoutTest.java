@@ -0,0 +1,62 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutputLayoutTest {
+
+	@TempDir
+	Path temp;
+
+	@Test
+	void target_should_be_next_to_original_without_output_root() {
+		var pdf = temp.resolve("dir/foo.pdf");
+
+		assertThat(OutputLayout.nextToOriginals(null).getTarget(pdf)).isEqualTo(pdf.toAbsolutePath());
+		assertThat(OutputLayout.nextToOriginals("-copy").getTarget(pdf))
+				.isEqualTo(temp.resolve("dir/foo-copy.pdf").toAbsolutePath());
+	}
+
+	@Test
+	void target_should_mirror_source_tree_into_output_root() {
+		var source = temp.resolve("source");
+		var output = temp.resolve("output");
+		var pdf = source.resolve("a/b/foo.pdf");
+
+		assertThat(new OutputLayout(null, source, output).getTarget(pdf)).isEqualTo(output.resolve("a/b/foo.pdf"));
+		assertThat(new OutputLayout("-copy", source, output).getTarget(pdf))
+				.isEqualTo(output.resolve("a/b/foo-copy.pdf"));
+	}
+
+	@Test
+	void directories_should_only_be_created_for_targets() throws Exception {
+		var source = temp.resolve("source");
+		var output = temp.resolve("output");
+		var cut = new OutputLayout(null, source, output);
+
+		assertThat(cut.getTarget(source.resolve("a/foo.pdf")).getParent()).doesNotExist();
+		assertThat(cut.createTarget(source.resolve("b/foo.pdf")).getParent()).isDirectory();
+		assertThat(output.resolve("a")).doesNotExist();
+	}
+
+	@Test
+	void only_files_within_output_root_should_be_output() {
+		var cut = new OutputLayout(null, temp, temp.resolve("output"));
+
+		assertThat(cut.isOutput(temp.resolve("output/foo.pdf"))).isTrue();
+		assertThat(cut.isOutput(temp.resolve("output-other/foo.pdf"))).isFalse();
+		assertThat(OutputLayout.nextToOriginals("-copy").isOutput(temp.resolve("foo.pdf"))).isFalse();
+	}
+
+	@Test
+	void roots_should_be_given_together() {
+		assertThatThrownBy(() -> new OutputLayout(null, null, temp))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
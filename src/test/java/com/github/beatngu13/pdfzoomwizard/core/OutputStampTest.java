@@ -0,0 +1,63 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutputStampTest {
+
+	@TempDir
+	Path temp;
+	Path output;
+	OutputLayout layout;
+
+	@BeforeEach
+	void setUp() {
+		output = temp.resolve("output");
+		layout = new OutputLayout(null, temp.resolve("source"), output);
+	}
+
+	@Test
+	void targets_should_be_kept_with_same_settings() throws Exception {
+		var target = output.resolve("a/file.pdf");
+		OutputStamp.open(layout, "zoom=FIT_PAGE").add(target);
+
+		var cut = OutputStamp.open(layout, "zoom=FIT_PAGE");
+
+		assertThat(cut.contains(target)).isTrue();
+		assertThat(cut.contains(output.resolve("file.pdf"))).isFalse();
+	}
+
+	@Test
+	void targets_should_be_dropped_with_other_settings() throws Exception {
+		var target = output.resolve("file.pdf");
+		OutputStamp.open(layout, "zoom=FIT_PAGE").add(target);
+
+		var cut = OutputStamp.open(layout, "zoom=FIT_WIDTH");
+
+		assertThat(cut.contains(target)).isFalse();
+		assertThat(OutputStamp.getFile(layout)).hasContent("zoom=FIT_WIDTH");
+	}
+
+	@Test
+	void targets_should_be_recorded_once() throws Exception {
+		var target = output.resolve("file.pdf");
+		var stamp = OutputStamp.open(layout, "zoom=FIT_PAGE");
+		stamp.add(target);
+		stamp.add(target);
+
+		assertThat(OutputStamp.getFile(layout)).hasContent("zoom=FIT_PAGE\nfile.pdf");
+	}
+
+	@Test
+	void each_infix_should_have_own_stamp() {
+		assertThat(OutputStamp.getFile(layout)).isEqualTo(output.resolve(".pdfzoomwizard.settings"));
+		assertThat(OutputStamp.getFile(new OutputLayout("-copy", temp, output)))
+				.isEqualTo(output.resolve(".pdfzoomwizard-copy.settings"));
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PdfFileModifierTest {
+
+	Path pdf;
+	byte[] original;
+
+	@BeforeEach
+	void setUp(@TempDir Path temp) throws Exception {
+		pdf = Files.copy(Paths.get("src/test/resources/sample.pdf"), temp.resolve("sample.pdf"));
+		original = Files.readAllBytes(pdf);
+	}
+
+	@Test
+	void should_copy_pdf_if_infix_is_not_null() throws Exception {
+		var cut = new PdfFileModifier(Zoom.FIT_PAGE, false, OutputLayout.nextToOriginals("-copy"), null);
+
+		assertThat(cut.modify(pdf)).isPositive();
+		assertThat(pdf).hasBinaryContent(original);
+		assertThat(pdf.getParent()).isDirectoryContaining(path -> path.endsWith("sample-copy.pdf"));
+		assertThat(pdf.getParent()).isDirectoryNotContaining("glob:**.part");
+	}
+
+	@Test
+	void should_overwrite_pdf_if_infix_is_null() throws Exception {
+		var cut = new PdfFileModifier(Zoom.FIT_PAGE, false, OutputLayout.nextToOriginals(null),
+				Duration.ofMinutes(1));
+
+		assertThat(cut.modify(pdf)).isPositive();
+		assertThat(Files.readAllBytes(pdf)).isNotEqualTo(original);
+		assertThat(pdf.getParent()).isDirectoryNotContaining("glob:**.part");
+	}
+
+	@Test
+	void timed_out_pdf_should_be_left_untouched() throws Exception {
+		var interrupted = new CountDownLatch(1);
+		var bookmarkModifier = mock(BookmarkModifier.class);
+		when(bookmarkModifier.modifyBookmarks(any())).then(invocation -> {
+			try {
+				new CountDownLatch(1).await();
+				return 0;
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+				throw new IllegalStateException(e);
+			}
+		});
+		var cut = new PdfFileModifier(null, bookmarkModifier, null, OutputLayout.nextToOriginals(null),
+				Duration.ofMillis(100));
+
+		assertThatThrownBy(() -> cut.modify(pdf))
+				.isInstanceOf(TimeoutException.class)
+				.hasMessage("Time budget of 100 ms exceeded.");
+		assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(pdf).hasBinaryContent(original);
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import com.github.beatngu13.pdfzoomwizard.core.Report.Entry;
+import com.github.beatngu13.pdfzoomwizard.core.Report.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportTest {
+
+	@Test
+	void report_should_be_read_as_written(@TempDir Path temp) throws Exception {
+		var report = new Report();
+		report.add(new Entry("a/b.pdf", Status.MODIFIED, 6, 42));
+		report.add(new Entry("a/with\ttab.pdf", Status.FAILED, 0, 7));
+		report.add(new Entry("c.txt", Status.SKIPPED, 0, 0));
+		var file = temp.resolve("report.tsv");
+
+		report.write(file);
+
+		assertThat(Report.read(file).getEntries()).isEqualTo(report.getEntries());
+	}
+
+	@Test
+	void merged_report_should_contain_all_entries() {
+		var first = new Report();
+		first.add(new Entry("a.pdf", Status.MODIFIED, 6, 1));
+		var second = new Report();
+		second.add(new Entry("b.pdf", Status.MODIFIED, 4, 1));
+		second.add(new Entry("c.pdf", Status.FAILED, 0, 1));
+
+		var merged = Report.merge(List.of(first, second));
+
+		assertThat(merged.getEntries()).hasSize(3);
+		assertThat(merged.getBookmarkCount()).isEqualTo(10);
+		assertThat(merged.getFileCount(Status.MODIFIED)).isEqualTo(2);
+		assertThat(merged.getFileCount(Status.FAILED)).isEqualTo(1);
+	}
+
+	@Test
+	void non_report_should_be_rejected(@TempDir Path temp) throws Exception {
+		var file = temp.resolve("foo.tsv");
+		Files.writeString(file, "foo");
+
+		assertThatThrownBy(() -> Report.read(file))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("is not a report");
+	}
+
+}
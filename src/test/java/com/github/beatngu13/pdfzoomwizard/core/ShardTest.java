@@ -0,0 +1,56 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardTest {
+
+	@Test
+	void shard_should_be_parsed() {
+		assertThat(Shard.parse("2/3")).isEqualTo(new Shard(2, 3));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"", "2", "a/3", "0/3", "4/3", "1/0"})
+	void invalid_shard_should_be_rejected(String shard) {
+		assertThatThrownBy(() -> Shard.parse(shard)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void each_file_should_be_contained_in_exactly_one_shard() {
+		var count = 5;
+		IntStream.range(0, 1_000)
+				.mapToObj(i -> Path.of("dir" + i % 7, "file" + i + ".pdf"))
+				.forEach(path -> assertThat(IntStream.rangeClosed(1, count)
+						.filter(index -> new Shard(index, count).contains(path)))
+						.hasSize(1));
+	}
+
+	@Test
+	void files_should_be_distributed_across_all_shards() {
+		var count = 4;
+		IntStream.rangeClosed(1, count)
+				.mapToObj(index -> new Shard(index, count))
+				.forEach(shard -> assertThat(IntStream.range(0, 1_000)
+						.mapToObj(i -> Path.of("file" + i + ".pdf"))
+						.filter(shard::contains))
+						.hasSizeBetween(150, 350));
+	}
+
+	@Test
+	void assignment_should_not_depend_on_path_notation() {
+		var shards = IntStream.rangeClosed(1, 7).mapToObj(index -> new Shard(index, 7)).toList();
+		var path = Path.of("a", "b", "c.pdf");
+		var equivalentPath = Path.of("a", ".", "b", "c.pdf");
+
+		shards.forEach(shard -> assertThat(shard.contains(equivalentPath)).isEqualTo(shard.contains(path)));
+	}
+
+}
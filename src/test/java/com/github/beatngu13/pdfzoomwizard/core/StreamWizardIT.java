@@ -0,0 +1,75 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamWizardIT {
+
+	static final Path SAMPLE_PDF = Paths.get("src/test/resources/sample.pdf");
+
+	@ParameterizedTest
+	@EnumSource
+	void zoom_should_be_applied_like_wizard_does(Zoom zoom, @TempDir Path temp) throws Exception {
+		var pdf = temp.resolve("temp.pdf");
+		Files.copy(SAMPLE_PDF, pdf);
+		new Wizard(pdf.toFile(), null, zoom).call();
+
+		var output = new ByteArrayOutputStream();
+		var bookmarkCount = new StreamWizard(zoom).apply(Files.newInputStream(SAMPLE_PDF), output);
+
+		var bookmarks = WizardITUtil.getBookmarks(output.toByteArray());
+		assertThat(bookmarks).isEqualTo(WizardITUtil.getBookmarks(pdf.toFile()));
+		assertThat(bookmarkCount).isEqualTo(6);
+	}
+
+	@Test
+	void buffer_should_be_read_from_its_position_without_being_consumed() throws Exception {
+		var sample = Files.readAllBytes(SAMPLE_PDF);
+		var buffer = ByteBuffer.allocate(sample.length + 3).position(3).put(sample).position(3);
+
+		var output = new ByteArrayOutputStream();
+		new StreamWizard(Zoom.FIT_PAGE).apply(buffer.slice(), output);
+
+		assertThat(buffer.position()).isEqualTo(3);
+		assertThat(WizardITUtil.getBookmarks(output.toByteArray())).hasSize(6);
+	}
+
+	@Test
+	void concurrent_use_should_yield_identical_results() throws Exception {
+		var sample = Files.readAllBytes(SAMPLE_PDF);
+		var cut = new StreamWizard(Zoom.FIT_WIDTH);
+		Callable<byte[]> apply = () -> {
+			var output = new ByteArrayOutputStream();
+			cut.apply(new ByteArrayInputStream(sample), output);
+			return output.toByteArray();
+		};
+		var expected = WizardITUtil.getBookmarks(apply.call());
+
+		var executor = Executors.newFixedThreadPool(8);
+		try {
+			var futures = IntStream.range(0, 32)
+					.mapToObj(i -> executor.submit(apply))
+					.toList();
+			for (var future : futures) {
+				assertThat(WizardITUtil.getBookmarks(future.get())).isEqualTo(expected);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
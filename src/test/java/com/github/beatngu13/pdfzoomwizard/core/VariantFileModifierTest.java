@@ -0,0 +1,68 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import com.github.beatngu13.pdfzoomwizard.core.VariantFileModifier.Variant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VariantFileModifierTest {
+
+	/**
+	 * Fit drops the position of XYZ destinations, hence the order checks that destinations are restored in between.
+	 */
+	static final List<Zoom> ZOOMS = List.of(Zoom.FIT_PAGE, Zoom.ACTUAL_SIZE, Zoom.FIT_WIDTH);
+
+	@TempDir
+	Path temp;
+	Path pdf;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		pdf = Files.copy(Paths.get("src/test/resources/sample.pdf"), temp.resolve("sample.pdf"));
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "false, false", "false, true", "true, false" })
+	void each_variant_should_match_separate_run(boolean modifyLinks, boolean fastOutline) throws Exception {
+		var variants = ZOOMS.stream()
+				.map(zoom -> new Variant(zoom, OutputLayout.nextToOriginals("-" + zoom.name())))
+				.toList();
+		var cut = new VariantFileModifier(variants, modifyLinks, fastOutline, null);
+
+		var count = cut.modify(pdf);
+
+		for (var zoom : ZOOMS) {
+			var expected = new PdfFileModifier(zoom, modifyLinks, OutputLayout.nextToOriginals("-expected"), null);
+			assertThat(expected.modify(pdf)).isEqualTo(count);
+			var expectedPdf = temp.resolve("sample-expected.pdf").toFile();
+			var variantPdf = temp.resolve("sample-" + zoom.name() + ".pdf").toFile();
+			assertThat(WizardITUtil.getBookmarks(variantPdf)).as(zoom.name())
+					.isEqualTo(WizardITUtil.getBookmarks(expectedPdf));
+			assertThat(WizardITUtil.getLinkDestinations(variantPdf)).as(zoom.name())
+					.isEqualTo(WizardITUtil.getLinkDestinations(expectedPdf));
+		}
+	}
+
+	@Test
+	void no_part_files_should_be_left_behind() throws Exception {
+		var cut = new VariantFileModifier(List.of(new Variant(Zoom.FIT_PAGE, OutputLayout.nextToOriginals("-a")),
+				new Variant(Zoom.FIT_WIDTH, OutputLayout.nextToOriginals("-b"))), true, false, null);
+
+		cut.modify(pdf);
+
+		try (var files = Files.list(temp)) {
+			assertThat(files.map(path -> path.getFileName().toString()))
+					.containsExactlyInAnyOrder("sample.pdf", "sample-a.pdf", "sample-b.pdf");
+		}
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerificationStageTest {
+
+	static final String INFIX = "-copy";
+
+	@TempDir
+	Path temp;
+	Path samplePdf = Paths.get("src/test/resources/sample.pdf");
+	Path pdf;
+	Path target;
+	VerificationStage cut;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		pdf = Files.copy(samplePdf, temp.resolve("file.pdf"));
+		target = temp.resolve("file" + INFIX + ".pdf");
+		cut = new VerificationStage(Zoom.FIT_PAGE, true, OutputLayout.nextToOriginals(INFIX), 1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		cut.close();
+	}
+
+	@Test
+	void modified_target_should_pass_and_discard_backup() throws Exception {
+		Files.writeString(target, "previous result");
+		var backup = cut.backup(pdf);
+		new PdfFileModifier(Zoom.FIT_PAGE, true, OutputLayout.nextToOriginals(INFIX), null).modify(pdf);
+
+		assertThat(cut.verify(pdf, backup).join()).isTrue();
+		assertThat(backup).doesNotExist();
+		assertThat(Files.mismatch(target, samplePdf)).isNotNegative();
+	}
+
+	@Test
+	void unmodified_target_should_be_rolled_back_to_backup() throws Exception {
+		Files.writeString(target, "previous result");
+		var backup = cut.backup(pdf);
+		FileUtil.replace(Files.copy(samplePdf, temp.resolve("output")), target);
+
+		assertThat(cut.verify(pdf, backup).join()).isFalse();
+		assertThat(backup).doesNotExist();
+		assertThat(target).hasContent("previous result");
+	}
+
+	@Test
+	void unmodified_target_without_backup_should_be_deleted() throws Exception {
+		var backup = cut.backup(pdf);
+		Files.copy(samplePdf, target);
+
+		assertThat(backup).isNull();
+		assertThat(cut.verify(pdf, null).join()).isFalse();
+		assertThat(target).doesNotExist();
+	}
+
+	@Test
+	void unmodified_sample_should_report_destinations() throws Exception {
+		assertThat(new PdfVerifier(Zoom.FIT_PAGE, false).verify(samplePdf)).isPositive();
+		assertThat(new PdfVerifier(Zoom.FIT_PAGE, true).verify(samplePdf))
+				.isGreaterThan(new PdfVerifier(Zoom.FIT_PAGE, false).verify(samplePdf));
+	}
+
+}
@@ -13,9 +13,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class WizardIT {
 
@@ -43,6 +50,36 @@ class WizardIT {
 			Approvals.verifyAll(bookmarks.toArray(), Object::toString, Approvals.NAMES.withParameters(zoomName));
 		}
 
+		@Test
+		void links_should_only_be_modified_if_enabled() {
+			var linkDestinations = WizardITUtil.getLinkDestinations(pdf);
+			new Wizard(pdf, null, Zoom.FIT_PAGE).call();
+			assertThat(WizardITUtil.getLinkDestinations(pdf)).isEqualTo(linkDestinations);
+
+			var cut = new Wizard(pdf, null, Zoom.FIT_PAGE);
+			cut.setModifyLinks(true);
+			cut.call();
+
+			assertThat(WizardITUtil.getLinkDestinations(pdf))
+					.hasSameSizeAs(linkDestinations)
+					.isNotEmpty()
+					.allSatisfy(destination -> assertThat(destination).endsWith("/Fit ]"));
+		}
+
+		@Test
+		void fast_outline_should_yield_same_bookmarks() {
+			var expected = new Wizard(pdf, "-expected", Zoom.FIT_PAGE);
+			expected.call();
+
+			var cut = new Wizard(pdf, "-fast", Zoom.FIT_PAGE);
+			cut.setFastOutline(true);
+			cut.call();
+
+			var directory = pdf.toPath().getParent();
+			assertThat(WizardITUtil.getBookmarks(directory.resolve(pdfPrefix + "-fast" + pdfSuffix).toFile()))
+					.isEqualTo(WizardITUtil.getBookmarks(directory.resolve(pdfPrefix + "-expected" + pdfSuffix).toFile()));
+		}
+
 		@Test
 		void should_overwrite_pdf_if_infix_is_null() {
 			new Wizard(pdf, null, Zoom.INHERIT_ZOOM).call();
@@ -62,6 +99,339 @@ class WizardIT {
 
 	}
 
+	@Nested
+	class WithWorkers {
+
+		@Test
+		void broken_pdf_should_only_fail_itself(@TempDir Path temp) throws Exception {
+			var samplePdf = Paths.get("src/test/resources/sample.pdf");
+			for (int i = 0; i < 3; i++) {
+				Files.copy(samplePdf, temp.resolve("file" + i + ".pdf"));
+			}
+			Files.writeString(temp.resolve("broken.pdf"), "This is not a PDF.");
+
+			var cut = new Wizard(temp.toFile(), "-copy", Zoom.FIT_PAGE);
+			cut.setWorkerCount(2);
+			cut.setIsolated(true);
+			cut.call();
+
+			var report = cut.getReport();
+			assertThat(report.getFileCount(Report.Status.MODIFIED)).isEqualTo(3);
+			assertThat(report.getFileCount(Report.Status.FAILED)).isEqualTo(1);
+		}
+
+	}
+
+	@Nested
+	class WithDuplicates {
+
+		@TempDir
+		Path temp;
+		Path samplePdf = Paths.get("src/test/resources/sample.pdf");
+
+		@BeforeEach
+		void setUp() throws Exception {
+			for (var dir : new String[] {"a", "b", "c"}) {
+				Files.createDirectory(temp.resolve(dir));
+				Files.copy(samplePdf, temp.resolve(dir).resolve("manual.pdf"));
+			}
+			// Same size, different content.
+			var other = Files.readAllBytes(samplePdf);
+			other[other.length - 1] ^= 1;
+			Files.write(temp.resolve("other.pdf"), other);
+		}
+
+		@Test
+		void copies_should_be_linked_to_single_result() throws Exception {
+			var cut = new Wizard(temp.toFile(), "-copy", Zoom.FIT_PAGE);
+			cut.setDeduplicate(true);
+			cut.setWorkerCount(2);
+			cut.call();
+
+			var report = cut.getReport();
+			assertThat(report.getFileCount(Report.Status.MODIFIED)).isEqualTo(2);
+			assertThat(report.getFileCount(Report.Status.DUPLICATE)).isEqualTo(2);
+			var copyA = temp.resolve("a/manual-copy.pdf");
+			assertThat(Files.isSameFile(copyA, temp.resolve("b/manual-copy.pdf"))).isTrue();
+			assertThat(Files.isSameFile(copyA, temp.resolve("c/manual-copy.pdf"))).isTrue();
+			assertThat(WizardITUtil.getBookmarks(copyA.toFile()))
+					.isNotEqualTo(WizardITUtil.getBookmarks(samplePdf.toFile()));
+		}
+
+		@Test
+		void originals_should_be_overwritten_independently() throws Exception {
+			var cut = new Wizard(temp.toFile(), null, Zoom.FIT_PAGE);
+			cut.setDeduplicate(true);
+			cut.call();
+
+			var originalA = temp.resolve("a/manual.pdf");
+			var originalB = temp.resolve("b/manual.pdf");
+			assertThat(cut.getReport().getFileCount(Report.Status.DUPLICATE)).isEqualTo(2);
+			assertThat(Files.isSameFile(originalA, originalB)).isFalse();
+			assertThat(originalB).hasSameBinaryContentAs(originalA);
+			assertThat(Files.mismatch(originalA, samplePdf)).isNotNegative();
+		}
+
+	}
+
+	@Nested
+	class WithVerification {
+
+		@Test
+		void verified_files_should_be_modified_without_leftovers(@TempDir Path temp) throws Exception {
+			var samplePdf = Paths.get("src/test/resources/sample.pdf");
+			for (int i = 0; i < 3; i++) {
+				Files.copy(samplePdf, temp.resolve("file" + i + ".pdf"));
+			}
+
+			var cut = new Wizard(temp.toFile(), null, Zoom.FIT_PAGE);
+			cut.setModifyLinks(true);
+			cut.setVerify(true);
+			cut.setWorkerCount(2);
+			cut.call();
+
+			assertThat(cut.getReport().getFileCount(Report.Status.MODIFIED)).isEqualTo(3);
+			try (var files = Files.list(temp)) {
+				assertThat(files).allSatisfy(file -> assertThat(file.toString()).endsWith(".pdf"));
+			}
+		}
+
+	}
+
+	@Nested
+	class WithAdaptiveConcurrency {
+
+		@Test
+		void all_files_should_be_modified(@TempDir Path temp) throws Exception {
+			var samplePdf = Paths.get("src/test/resources/sample.pdf");
+			for (int i = 0; i < 6; i++) {
+				Files.copy(samplePdf, temp.resolve("file" + i + ".pdf"));
+			}
+
+			var cut = new Wizard(temp.toFile(), "-copy", Zoom.FIT_PAGE);
+			cut.setWorkerCount(3);
+			cut.setAdaptiveConcurrency(true);
+			cut.call();
+
+			assertThat(cut.getReport().getFileCount(Report.Status.MODIFIED)).isEqualTo(6);
+			assertThat(cut.getConcurrencyDecisions()).allSatisfy(decision -> assertThat(decision.to()).isBetween(1, 3));
+		}
+
+	}
+
+	@Nested
+	class WithScheduling {
+
+		@Test
+		void largest_files_should_be_modified_first(@TempDir Path temp) throws Exception {
+			Files.writeString(temp.resolve("small.txt"), "This is not a PDF.");
+			Files.copy(Paths.get("src/test/resources/sample.pdf"), temp.resolve("file.pdf"));
+			Files.write(temp.resolve("large.txt"), new byte[1024 * 1024]);
+
+			var cut = new Wizard(temp.toFile(), "-copy", Zoom.FIT_PAGE);
+			cut.setScheduling(Scheduling.LARGEST_FIRST);
+			cut.call();
+
+			assertThat(cut.getReport().getEntries()).extracting(Report.Entry::path)
+					.containsExactly("large.txt", "file.pdf", "small.txt");
+		}
+
+	}
+
+	@Nested
+	class WithVariants {
+
+		@Test
+		void each_variant_should_be_written_from_single_run(@TempDir Path temp) throws Exception {
+			var samplePdf = Paths.get("src/test/resources/sample.pdf");
+			var pdf = Files.copy(samplePdf, temp.resolve("file.pdf"));
+			var variants = new LinkedHashMap<Zoom, String>();
+			variants.put(Zoom.FIT_PAGE, "-page");
+			variants.put(Zoom.FIT_WIDTH, "-width");
+			variants.put(Zoom.ACTUAL_SIZE, "-actual");
+
+			for (int run = 0; run < 2; run++) {
+				var cut = new Wizard(temp.toFile(), variants);
+				cut.call();
+				assertThat(cut.getReport().getFileCount(Report.Status.MODIFIED)).as("Copies are not modified").isOne();
+			}
+
+			for (var variant : variants.entrySet()) {
+				var expected = Files.copy(samplePdf, temp.resolve("expected.pdf"), StandardCopyOption.REPLACE_EXISTING);
+				new Wizard(expected.toFile(), null, variant.getKey()).call();
+				assertThat(WizardITUtil.getBookmarks(temp.resolve("file" + variant.getValue() + ".pdf").toFile()))
+						.isEqualTo(WizardITUtil.getBookmarks(expected.toFile()));
+			}
+			assertThat(pdf).hasSameBinaryContentAs(samplePdf);
+		}
+
+		@Test
+		void variants_should_not_share_infix() {
+			var variants = new LinkedHashMap<Zoom, String>();
+			variants.put(Zoom.FIT_PAGE, "-copy");
+			variants.put(Zoom.FIT_WIDTH, "-copy");
+
+			assertThatThrownBy(() -> new Wizard(new File("foo"), variants))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+
+	}
+
+	@Nested
+	class WithOutputRoot {
+
+		@TempDir
+		Path temp;
+		Path source;
+		Path output;
+
+		@BeforeEach
+		void setUp() throws Exception {
+			var samplePdf = Paths.get("src/test/resources/sample.pdf");
+			source = Files.createDirectory(temp.resolve("source"));
+			output = temp.resolve("output");
+			Files.createDirectories(source.resolve("a/b"));
+			Files.copy(samplePdf, source.resolve("a/b/file.pdf"));
+			Files.copy(samplePdf, source.resolve("file.pdf"));
+			Files.createDirectory(source.resolve("c"));
+			Files.writeString(source.resolve("c/file.txt"), "This is not a PDF.");
+		}
+
+		@Test
+		void output_should_mirror_source_tree(@TempDir Path expected) throws Exception {
+			var expectedPdf = Files.copy(source.resolve("file.pdf"), expected.resolve("file.pdf"));
+			new Wizard(expectedPdf.toFile(), null, Zoom.FIT_PAGE).call();
+
+			var cut = new Wizard(source.toFile(), null, Zoom.FIT_PAGE);
+			cut.setOutputRoot(output.toFile());
+			cut.call();
+
+			assertThat(cut.getReport().getFileCount(Report.Status.MODIFIED)).isEqualTo(2);
+			assertThat(WizardITUtil.getBookmarks(output.resolve("a/b/file.pdf").toFile()))
+					.isEqualTo(WizardITUtil.getBookmarks(expectedPdf.toFile()));
+			assertThat(output.resolve("file.pdf")).exists();
+			assertThat(output.resolve("c")).doesNotExist();
+			assertThat(source.resolve("file.pdf")).hasSameBinaryContentAs(Paths.get("src/test/resources/sample.pdf"));
+		}
+
+		@Test
+		void up_to_date_output_should_be_skipped() throws Exception {
+			var first = new Wizard(source.toFile(), null, Zoom.FIT_PAGE);
+			first.setOutputRoot(output.toFile());
+			first.call();
+			// Touch a single source.
+			var touched = source.resolve("a/b/file.pdf");
+			Files.setLastModifiedTime(touched, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+			var second = new Wizard(source.toFile(), null, Zoom.FIT_PAGE);
+			second.setOutputRoot(output.toFile());
+			second.setIsolated(true);
+			second.call();
+
+			var report = second.getReport();
+			assertThat(report.getFileCount(Report.Status.MODIFIED)).isEqualTo(1);
+			assertThat(report.getFileCount(Report.Status.UP_TO_DATE)).isEqualTo(1);
+		}
+
+		@Test
+		void output_with_other_settings_should_not_be_up_to_date() throws Exception {
+			var first = new Wizard(source.toFile(), null, Zoom.FIT_PAGE);
+			first.setOutputRoot(output.toFile());
+			first.call();
+
+			var second = new Wizard(source.toFile(), null, Zoom.FIT_WIDTH);
+			second.setOutputRoot(output.toFile());
+			second.call();
+
+			var third = new Wizard(source.toFile(), null, Zoom.FIT_WIDTH);
+			third.setOutputRoot(output.toFile());
+			third.setModifyLinks(true);
+			third.call();
+
+			assertThat(second.getReport().getFileCount(Report.Status.MODIFIED)).isEqualTo(2);
+			assertThat(third.getReport().getFileCount(Report.Status.MODIFIED)).isEqualTo(2);
+		}
+
+		@Test
+		void output_root_within_source_should_not_be_processed() throws Exception {
+			var nested = source.resolve("output");
+
+			for (int run = 0; run < 2; run++) {
+				var cut = new Wizard(source.toFile(), null, Zoom.FIT_PAGE);
+				cut.setOutputRoot(nested.toFile());
+				cut.call();
+			}
+
+			assertThat(nested.resolve("file.pdf")).exists();
+			assertThat(nested.resolve("output")).doesNotExist();
+		}
+
+	}
+
+	@Nested
+	class WithZip {
+
+		@Test
+		void pdfs_inside_zip_should_be_modified_and_verified(@TempDir Path temp) throws Exception {
+			var samplePdf = Paths.get("src/test/resources/sample.pdf");
+			try (var zipOutput = new ZipOutputStream(Files.newOutputStream(temp.resolve("archive.zip")))) {
+				for (var name : new String[] {"a.pdf", "dir/b.pdf"}) {
+					zipOutput.putNextEntry(new ZipEntry(name));
+					Files.copy(samplePdf, zipOutput);
+				}
+			}
+
+			var cut = new Wizard(temp.toFile(), "-copy", Zoom.FIT_PAGE);
+			cut.setModifyLinks(true);
+			cut.setModifyZips(true);
+			cut.setVerify(true);
+			cut.call();
+
+			assertThat(cut.getReport().getEntries())
+					.singleElement()
+					.satisfies(entry -> assertThat(entry.status()).isEqualTo(Report.Status.MODIFIED));
+			try (var zipInput = new ZipInputStream(Files.newInputStream(temp.resolve("archive-copy.zip")))) {
+				assertThat(zipInput.getNextEntry().getName()).isEqualTo("a.pdf");
+				assertThat(WizardITUtil.getBookmarks(zipInput.readAllBytes()))
+						.isNotEqualTo(WizardITUtil.getBookmarks(samplePdf.toFile()));
+			}
+		}
+
+		@Test
+		void zips_should_only_be_modified_if_enabled(@TempDir Path temp) throws Exception {
+			var zip = temp.resolve("archive.zip");
+			try (var zipOutput = new ZipOutputStream(Files.newOutputStream(zip))) {
+				zipOutput.putNextEntry(new ZipEntry("a.pdf"));
+				Files.copy(Paths.get("src/test/resources/sample.pdf"), zipOutput);
+			}
+			var original = Files.readAllBytes(zip);
+
+			var cut = new Wizard(temp.toFile(), null, Zoom.FIT_PAGE);
+			cut.call();
+
+			assertThat(cut.getReport().getFileCount(Report.Status.SKIPPED)).isOne();
+			assertThat(zip).hasBinaryContent(original);
+		}
+
+		@Test
+		void zip_without_pdfs_should_be_left_as_it_is(@TempDir Path temp) throws Exception {
+			var zip = temp.resolve("archive.zip");
+			try (var zipOutput = new ZipOutputStream(Files.newOutputStream(zip))) {
+				zipOutput.putNextEntry(new ZipEntry("readme.txt"));
+				zipOutput.write("This is not a PDF.".getBytes());
+			}
+			var original = Files.readAllBytes(zip);
+
+			var cut = new Wizard(temp.toFile(), null, Zoom.FIT_PAGE);
+			cut.setModifyZips(true);
+			cut.call();
+
+			assertThat(cut.getReport().getFileCount(Report.Status.SKIPPED)).isOne();
+			assertThat(zip).hasBinaryContent(original);
+		}
+
+	}
+
 	@Nested
 	class WithNonPdf {
 
@@ -73,6 +443,17 @@ class WizardIT {
 			assertThatCode(cut::call).doesNotThrowAnyException();
 		}
 
+		@Test
+		void entry_listener_should_be_notified(@TempDir Path temp) throws Exception {
+			var nonPdf = temp.resolve("foo.bar").toFile();
+			nonPdf.createNewFile();
+			var entries = new ArrayList<Report.Entry>();
+			var cut = new Wizard(nonPdf, null, Zoom.ACTUAL_SIZE);
+			cut.setEntryListener(entries::add);
+			cut.call();
+			assertThat(entries).containsExactly(new Report.Entry("foo.bar", Report.Status.SKIPPED, 0, 0));
+		}
+
 	}
 
 }
@@ -1,14 +1,18 @@
 package com.github.beatngu13.pdfzoomwizard.core;
 
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfOutline;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.annot.PdfLinkAnnotation;
 import com.itextpdf.kernel.pdf.navigation.PdfDestination;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 final class WizardITUtil {
@@ -20,13 +24,48 @@ final class WizardITUtil {
 	}
 
 	static List<Bookmark> getBookmarks(File pdf) {
-		return streamOutlines(pdf)
+		try {
+			return getBookmarks(new PdfReader(pdf));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static List<Bookmark> getBookmarks(byte[] pdf) {
+		try {
+			return getBookmarks(new PdfReader(new ByteArrayInputStream(pdf)));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @param pdf PDF to read.
+	 * @return Destination of each GoTo link annotation, in page order.
+	 */
+	static List<String> getLinkDestinations(File pdf) {
+		try (PdfDocument doc = new PdfDocument(new PdfReader(pdf))) {
+			return IntStream.rangeClosed(1, doc.getNumberOfPages())
+					.mapToObj(doc::getPage)
+					.flatMap(page -> page.getAnnotations().stream())
+					.filter(PdfLinkAnnotation.class::isInstance)
+					.map(annotation -> ((PdfLinkAnnotation) annotation).getAction())
+					.filter(action -> PdfName.GoTo.equals(action.getAsName(PdfName.S)))
+					.map(action -> action.get(PdfName.D).toString())
+					.toList();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static List<Bookmark> getBookmarks(PdfReader reader) {
+		return streamOutlines(reader)
 				.map(WizardITUtil::toBookmark)
 				.toList();
 	}
 
-	private static Stream<PdfOutline> streamOutlines(File pdf) {
-		try (PdfDocument doc = new PdfDocument(new PdfReader(pdf))) {
+	private static Stream<PdfOutline> streamOutlines(PdfReader reader) {
+		try (PdfDocument doc = new PdfDocument(reader)) {
 			PdfOutline outlines = doc.getOutlines(true);
 			if (outlines == null) {
 				return Stream.empty();
@@ -35,8 +74,6 @@ final class WizardITUtil {
 					.getAllChildren()
 					.stream()
 					.flatMap(WizardITUtil::streamOutlines);
-		} catch (IOException e) {
-			throw new UncheckedIOException(e);
 		}
 	}
 
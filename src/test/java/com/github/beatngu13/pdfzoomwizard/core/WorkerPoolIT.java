@@ -0,0 +1,103 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkerPoolIT {
+
+	static final OutputLayout COPY = OutputLayout.nextToOriginals("-copy");
+
+	Path pdf;
+	Path brokenPdf;
+
+	@BeforeEach
+	void setUp(@TempDir Path temp) throws Exception {
+		pdf = Files.copy(Paths.get("src/test/resources/sample.pdf"), temp.resolve("sample.pdf"));
+		brokenPdf = Files.writeString(temp.resolve("broken.pdf"), "This is not a PDF.");
+	}
+
+	@Test
+	void should_modify_like_in_process_modifier(@TempDir Path temp) throws Exception {
+		var expectedPdf = Files.copy(pdf, temp.resolve("expected.pdf"));
+		var expectedBookmarkCount = new PdfFileModifier(Zoom.FIT_PAGE, false, OutputLayout.nextToOriginals(null), null)
+				.modify(expectedPdf);
+
+		try (var cut = new WorkerPool(1, null, Zoom.FIT_PAGE, false, false, COPY, null)) {
+			assertThat(cut.modify(pdf)).isEqualTo(expectedBookmarkCount);
+		}
+
+		var copy = pdf.resolveSibling("sample-copy.pdf");
+		assertThat(WizardITUtil.getBookmarks(copy.toFile()))
+				.isEqualTo(WizardITUtil.getBookmarks(expectedPdf.toFile()));
+	}
+
+	@Test
+	void failure_should_not_affect_worker() throws Exception {
+		try (var cut = new WorkerPool(1, null, Zoom.FIT_PAGE, false, false, COPY, null)) {
+			assertThatThrownBy(() -> cut.modify(brokenPdf))
+					.isInstanceOf(IOException.class)
+					.hasMessageStartingWith("Worker 1 failed:");
+			assertThat(cut.modify(pdf)).isPositive();
+		}
+	}
+
+	@Test
+	void dead_worker_should_be_restarted() throws Exception {
+		try (var cut = new WorkerPool(1, null, Zoom.FIT_PAGE, false, false, COPY, null)) {
+			cut.modify(pdf);
+			ProcessHandle.current().children().forEach(worker -> {
+				worker.destroyForcibly();
+				worker.onExit().join();
+			});
+
+			assertThat(cut.modify(pdf)).isPositive();
+		}
+	}
+
+	@Test
+	@EnabledOnOs(OS.LINUX)
+	void hanging_worker_should_be_killed(@TempDir Path temp) throws Exception {
+		// Opening a FIFO without writer blocks forever.
+		var fifo = temp.resolve("fifo.pdf");
+		var mkfifo = new ProcessBuilder("mkfifo", fifo.toString()).start();
+		assertThat(mkfifo.waitFor(10, TimeUnit.SECONDS)).isTrue();
+		// As if the worker had been killed while writing.
+		var part = Files.writeString(temp.resolve("fifo-copy.pdf.part"), "%PDF-");
+
+		try (var cut = new WorkerPool(1, null, Zoom.FIT_PAGE, false, false, COPY, Duration.ofSeconds(2))) {
+			assertThatThrownBy(() -> cut.modify(fifo))
+					.isInstanceOf(TimeoutException.class)
+					.hasMessage("Worker 1 exceeded time budget of 2000 ms.");
+			assertThat(part).doesNotExist();
+			assertThat(cut.modify(pdf)).isPositive();
+		}
+	}
+
+	@Test
+	@EnabledOnOs(OS.LINUX)
+	void path_with_line_break_should_be_rejected(@TempDir Path temp) throws Exception {
+		var linePdf = Files.copy(pdf, temp.resolve("line\nbreak.pdf"));
+
+		try (var cut = new WorkerPool(1, null, Zoom.FIT_PAGE, false, false, COPY, null)) {
+			assertThatThrownBy(() -> cut.modify(linePdf))
+					.isInstanceOf(IOException.class)
+					.hasMessageStartingWith("Path contains a line break:");
+			assertThat(cut.modify(pdf)).isPositive();
+		}
+	}
+
+}
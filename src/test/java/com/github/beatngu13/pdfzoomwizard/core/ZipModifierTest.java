@@ -0,0 +1,171 @@
+package com.github.beatngu13.pdfzoomwizard.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ZipModifierTest {
+
+	static final byte[] TEXT = "This is not a PDF.".getBytes(StandardCharsets.UTF_8);
+
+	@TempDir
+	Path temp;
+	byte[] samplePdf;
+	ZipModifier cut = new ZipModifier(new BookmarkModifier(Zoom.FIT_PAGE), null);
+
+	@BeforeEach
+	void setUp() throws Exception {
+		samplePdf = Files.readAllBytes(Paths.get("src/test/resources/sample.pdf"));
+	}
+
+	@Test
+	void pdf_entries_should_be_modified_and_others_copied() throws Exception {
+		var zip = zip(true);
+		var expected = Files.write(temp.resolve("expected.pdf"), samplePdf);
+		var expectedBookmarkCount = new PdfFileModifier(Zoom.FIT_PAGE, false, OutputLayout.nextToOriginals(null), null)
+				.modify(expected);
+
+		var output = new ByteArrayOutputStream();
+		var count = cut.modifyZip(new ByteArrayInputStream(zip), output, null, temp);
+
+		assertThat(count).isEqualTo(2 * expectedBookmarkCount);
+		var entries = unzip(output.toByteArray());
+		assertThat(entries).containsOnlyKeys("dir/", "dir/a.pdf", "b.pdf", "readme.txt");
+		assertThat(WizardITUtil.getBookmarks(entries.get("dir/a.pdf").content()))
+				.isEqualTo(WizardITUtil.getBookmarks(Files.readAllBytes(expected)));
+		assertThat(WizardITUtil.getBookmarks(entries.get("b.pdf").content()))
+				.isEqualTo(WizardITUtil.getBookmarks(Files.readAllBytes(expected)));
+		assertThat(entries.get("readme.txt").content()).isEqualTo(TEXT);
+		assertThat(entries.get("readme.txt").method()).isEqualTo(ZipEntry.STORED);
+		assertThat(temp).isDirectoryNotContaining("glob:**.tmp");
+	}
+
+	@Test
+	void broken_pdf_entry_should_fail_archive() throws Exception {
+		var bytes = new ByteArrayOutputStream();
+		try (var zipOutput = new ZipOutputStream(bytes)) {
+			zipOutput.putNextEntry(new ZipEntry("broken.pdf"));
+			zipOutput.write(TEXT);
+		}
+
+		assertThatThrownBy(() -> cut.modifyZip(new ByteArrayInputStream(bytes.toByteArray()),
+				new ByteArrayOutputStream(), null, temp))
+				.hasMessage("Cannot modify entry 'broken.pdf'.");
+	}
+
+	@Test
+	void archive_comment_should_be_copied() throws Exception {
+		var zip = temp.resolve("archive.zip");
+		try (var zipOutput = new ZipOutputStream(Files.newOutputStream(zip))) {
+			zipOutput.setComment("Some comment");
+			zipOutput.putNextEntry(new ZipEntry("a.pdf"));
+			zipOutput.write(samplePdf);
+		}
+		var output = temp.resolve("output.zip");
+
+		cut.modifyZip(zip, output, temp);
+
+		try (var zipFile = new ZipFile(output.toFile())) {
+			assertThat(zipFile.getComment()).isEqualTo("Some comment");
+		}
+	}
+
+	@Test
+	void pdf_entries_should_be_detected() throws Exception {
+		var withPdf = Files.write(temp.resolve("with-pdf.zip"), zip(false));
+		var withoutPdf = temp.resolve("without-pdf.zip");
+		try (var zipOutput = new ZipOutputStream(Files.newOutputStream(withoutPdf))) {
+			zipOutput.putNextEntry(new ZipEntry("dir.pdf/"));
+			zipOutput.putNextEntry(new ZipEntry("readme.txt"));
+			zipOutput.write(TEXT);
+		}
+
+		assertThat(ZipModifier.containsPdf(withPdf)).isTrue();
+		assertThat(ZipModifier.containsPdf(withoutPdf)).isFalse();
+	}
+
+	@Test
+	void large_entry_should_be_spilled_and_deleted_after_use() throws Exception {
+		try (var zipInput = new ZipInputStream(new ByteArrayInputStream(zip(false)))) {
+			var content = readSecondEntry(zipInput, samplePdf.length / 2);
+
+			assertThat(content.spillFile()).hasBinaryContent(samplePdf);
+			content.close();
+			assertThat(content.spillFile()).doesNotExist();
+		}
+	}
+
+	@Test
+	void small_entry_should_be_buffered_in_memory() throws Exception {
+		try (var zipInput = new ZipInputStream(new ByteArrayInputStream(zip(false)));
+			 var content = readSecondEntry(zipInput, ZipModifier.MAX_BUFFERED_ENTRY_SIZE)) {
+			assertThat(content.spillFile()).isNull();
+			assertThat(content.stream().getLength()).isEqualTo(samplePdf.length);
+		}
+	}
+
+	private ZipModifier.EntryContent readSecondEntry(ZipInputStream zipInput, int maxBufferedSize) throws Exception {
+		// Skips the directory.
+		zipInput.getNextEntry();
+		zipInput.getNextEntry();
+		return ZipModifier.read(zipInput, temp, maxBufferedSize);
+	}
+
+	private byte[] zip(boolean withText) throws Exception {
+		var bytes = new ByteArrayOutputStream();
+		try (var zipOutput = new ZipOutputStream(bytes)) {
+			zipOutput.putNextEntry(new ZipEntry("dir/"));
+			zipOutput.putNextEntry(new ZipEntry("dir/a.pdf"));
+			zipOutput.write(samplePdf);
+			zipOutput.putNextEntry(stored("b.pdf", samplePdf));
+			zipOutput.write(samplePdf);
+			if (withText) {
+				zipOutput.putNextEntry(stored("readme.txt", TEXT));
+				zipOutput.write(TEXT);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static ZipEntry stored(String name, byte[] content) {
+		var entry = new ZipEntry(name);
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(content.length);
+		var crc = new CRC32();
+		crc.update(content);
+		entry.setCrc(crc.getValue());
+		return entry;
+	}
+
+	private static Map<String, Entry> unzip(byte[] zip) throws Exception {
+		var entries = new LinkedHashMap<String, Entry>();
+		try (var zipInput = new ZipInputStream(new ByteArrayInputStream(zip))) {
+			ZipEntry entry;
+			while ((entry = zipInput.getNextEntry()) != null) {
+				entries.put(entry.getName(), new Entry(entry.getMethod(), zipInput.readAllBytes()));
+			}
+		}
+		return entries;
+	}
+
+	record Entry(int method, byte[] content) {
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.github.beatngu13.pdfzoomwizard.ui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpdateBufferTest {
+
+	UpdateBuffer<Integer> cut = new UpdateBuffer<>();
+
+	@Test
+	void drain_should_return_updates_in_order() {
+		cut.add(1);
+		cut.add(2);
+
+		assertThat(cut.drain()).containsExactly(1, 2);
+		assertThat(cut.drain()).isEmpty();
+	}
+
+	@Test
+	void concurrent_updates_should_not_get_lost() throws Exception {
+		var executor = Executors.newFixedThreadPool(4);
+		IntStream.range(0, 10_000).forEach(i -> executor.execute(() -> cut.add(i)));
+		executor.shutdown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(cut.drain()).hasSize(10_000).doesNotHaveDuplicates();
+	}
+
+}